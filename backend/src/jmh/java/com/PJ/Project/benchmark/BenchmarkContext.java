@@ -0,0 +1,106 @@
+package com.PJ.Project.benchmark;
+
+import com.PJ.Project.ProjectApplication;
+import com.PJ.Project.entity.EventType;
+import com.PJ.Project.entity.Photo;
+import com.PJ.Project.entity.Wedding;
+import com.PJ.Project.repository.PhotoRepository;
+import com.PJ.Project.repository.WeddingRepository;
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.jackson2.JacksonFactory;
+import com.google.api.services.drive.Drive;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Aplicatia pornita pentru benchmark-uri: baza de date SQLite si cache-ul de imagini intr-un director
+ * temporar, sters la inchidere. Clientul Google Drive este inlocuit cu unul fara credentiale, care nu
+ * este apelat de benchmark-uri (imaginile sunt puse direct in cache).
+ */
+final class BenchmarkContext implements AutoCloseable {
+
+    private final Path dir;
+    private final ConfigurableApplicationContext context;
+
+    private BenchmarkContext(Path dir, ConfigurableApplicationContext context) {
+        this.dir = dir;
+        this.context = context;
+    }
+
+    static BenchmarkContext start() throws IOException {
+        Path dir = Files.createTempDirectory("fotoit-bench");
+        // argumente de linie de comanda: au prioritate fata de application.properties
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ProjectApplication.class, NoDriveConfig.class)
+                .run("--server.port=0",
+                        "--spring.main.allow-bean-definition-overriding=true",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--spring.datasource.url=jdbc:sqlite:" + dir.resolve("bench.db"),
+                        "--spring.jpa.hibernate.ddl-auto=create",
+                        "--fotoit.cache.dir=" + dir.resolve("images"),
+                        "--fotoit.archive.dir=" + dir.resolve("archives"),
+                        "--fotoit.archive.build-on-sync=false");
+        return new BenchmarkContext(dir, context);
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * Creeaza un eveniment cu pozele lui (fileId-uri "{code}-{index}")
+     */
+    Wedding createWedding(String code, int photoCount) {
+        Wedding wedding = bean(WeddingRepository.class).save(Wedding.builder()
+                .code(code)
+                .name("Benchmark " + code)
+                .eventType(EventType.WEDDING)
+                .googleFolderId("folder-" + code)
+                .build());
+
+        List<Photo> photos = new ArrayList<>(photoCount);
+        for (int i = 0; i < photoCount; i++) {
+            String fileId = code + "-" + i;
+            photos.add(Photo.builder()
+                    .wedding(wedding)
+                    .fileId(fileId)
+                    .filename(String.format("IMG_%05d.jpg", i))
+                    .url("/api/gallery/image/" + fileId)
+                    .thumbnailUrl("/api/gallery/thumbnail/" + fileId)
+                    .md5Checksum(Integer.toHexString(fileId.hashCode()))
+                    .mimeType("image/jpeg")
+                    .fileSize(4_000_000L)
+                    .width(6000)
+                    .height(4000)
+                    .build());
+        }
+        bean(PhotoRepository.class).insertAll(photos);
+        return wedding;
+    }
+
+    @Override
+    public void close() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(dir);
+    }
+
+    @Configuration
+    static class NoDriveConfig {
+
+        @Bean
+        Drive driveService() {
+            return new Drive.Builder(new NetHttpTransport(), JacksonFactory.getDefaultInstance(), null)
+                    .setApplicationName("FotoIT benchmark")
+                    .build();
+        }
+    }
+}
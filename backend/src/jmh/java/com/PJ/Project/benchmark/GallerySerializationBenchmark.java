@@ -0,0 +1,85 @@
+package com.PJ.Project.benchmark;
+
+import com.PJ.Project.dto.GalleryResponseDto;
+import com.PJ.Project.dto.PhotoDto;
+import com.PJ.Project.entity.EventType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializarea JSON a raspunsului GET /api/gallery/{code} (costul unui cache miss in GalleryCacheService)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GallerySerializationBenchmark {
+
+    @Param({"1000", "10000"})
+    public int photos;
+
+    private ObjectMapper objectMapper;
+    private GalleryResponseDto gallery;
+
+    @Setup
+    public void setUp() {
+        // aceeasi configurare ca ObjectMapper-ul Spring Boot (date ISO-8601, nu timestamp-uri)
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        LocalDateTime createdAt = LocalDateTime.now();
+        List<PhotoDto> photoDtos = new ArrayList<>(photos);
+        for (int i = 0; i < photos; i++) {
+            String fileId = "1AbCdEfGhIjKlMnOpQrStUvWxYz" + i;
+            photoDtos.add(PhotoDto.builder()
+                    .id((long) i)
+                    .filename(String.format("IMG_%05d.jpg", i))
+                    .url("/api/gallery/image/" + fileId)
+                    .thumbnailUrl("/api/gallery/thumbnail/" + fileId)
+                    .variants(Map.of(
+                            400, "/api/gallery/thumbnail/" + fileId + "?w=400",
+                            1200, "/api/gallery/thumbnail/" + fileId + "?w=1200",
+                            2048, "/api/gallery/thumbnail/" + fileId + "?w=2048"))
+                    .weddingId(1L)
+                    .fileId(fileId)
+                    .width(6000)
+                    .height(4000)
+                    .createdAt(createdAt)
+                    .build());
+        }
+        gallery = GalleryResponseDto.builder()
+                .code("BENCH")
+                .eventType(EventType.WEDDING)
+                .name("Benchmark")
+                .photos(photoDtos)
+                .totalPhotos(photos)
+                .build();
+    }
+
+    @Benchmark
+    public byte[] writeValueAsBytes() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(gallery);
+    }
+}
@@ -0,0 +1,72 @@
+package com.PJ.Project.benchmark;
+
+import com.PJ.Project.dto.CompactGalleryDto;
+import com.PJ.Project.dto.GalleryResponseDto;
+import com.PJ.Project.entity.Wedding;
+import com.PJ.Project.service.WeddingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Galeria prin API-ul public al WeddingService (interogare + maparea in DTO, inclusiv URL-urile
+ * variantelor), fara cache-ul de raspunsuri: galeria completa (v1 si v2) si prima pagina keyset
+ * ceruta de frontend la deschiderea galeriei
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GalleryServiceBenchmark {
+
+    private static final int FIRST_PAGE_SIZE = 20;
+
+    @Param({"1000", "10000"})
+    public int photos;
+
+    private BenchmarkContext context;
+    private WeddingService weddingService;
+    private Wedding wedding;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = BenchmarkContext.start();
+        weddingService = context.bean(WeddingService.class);
+        wedding = context.createWedding("BENCH", photos);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+    }
+
+    @Benchmark
+    public GalleryResponseDto galleryByCode() {
+        return weddingService.getGalleryByCode(wedding.getCode());
+    }
+
+    @Benchmark
+    public CompactGalleryDto compactGallery() {
+        return weddingService.getCompactGallery(wedding.getCode(), null, 0);
+    }
+
+    @Benchmark
+    public CompactGalleryDto compactFirstPage() {
+        return weddingService.getCompactGallery(wedding.getCode(), "", FIRST_PAGE_SIZE);
+    }
+}
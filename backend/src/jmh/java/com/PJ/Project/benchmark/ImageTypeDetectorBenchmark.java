@@ -0,0 +1,72 @@
+package com.PJ.Project.benchmark;
+
+import com.PJ.Project.util.ImageTypeDetector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Detectarea tipului imaginii din magic bytes: din header-ul deja citit si de pe disc
+ * (cum este folosita pentru originalele din cache fara tip salvat)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImageTypeDetectorBenchmark {
+
+    @Param({"jpeg", "png", "gif", "webp", "unknown"})
+    public String format;
+
+    private byte[] content;
+    private Path file;
+
+    @Setup
+    public void setUp() throws IOException {
+        content = new byte[64 * 1024];
+        ThreadLocalRandom.current().nextBytes(content);
+        byte[] header = switch (format) {
+            case "jpeg" -> new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0};
+            case "png" -> new byte[]{(byte) 0x89, 0x50, 0x4E, 0x47};
+            case "gif" -> new byte[]{0x47, 0x49, 0x46, 0x38};
+            case "webp" -> new byte[]{0x52, 0x49, 0x46, 0x46, 0, 0, 0, 0, 0x57, 0x45, 0x42, 0x50};
+            default -> new byte[]{0, 0, 0, 0};
+        };
+        System.arraycopy(header, 0, content, 0, header.length);
+        file = Files.createTempFile("fotoit-bench", ".img");
+        Files.write(file, content);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public MediaType detectFromBytes() {
+        return ImageTypeDetector.detectImageType(content);
+    }
+
+    @Benchmark
+    public MediaType detectFromFile() throws IOException {
+        return ImageTypeDetector.detectImageType(file);
+    }
+}
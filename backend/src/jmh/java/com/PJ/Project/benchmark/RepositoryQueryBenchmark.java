@@ -0,0 +1,97 @@
+package com.PJ.Project.benchmark;
+
+import com.PJ.Project.dto.PhotoRowDto;
+import com.PJ.Project.dto.WeddingSummaryDto;
+import com.PJ.Project.entity.Wedding;
+import com.PJ.Project.repository.PhotoRepository;
+import com.PJ.Project.repository.WeddingRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Limit;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Interogarile galeriei pe un fisier SQLite temporar (WAL, pool-ul de citire al aplicatiei):
+ * toate pozele, o pagina keyset la inceput si la mijlocul galeriei, numararea si sumarul evenimentelor.
+ * Galeria prin WeddingService (interogare + mapare) este masurata de GalleryServiceBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RepositoryQueryBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+    // evenimente suplimentare, ca sumarul si indexurile sa lucreze pe mai mult de o galerie
+    private static final int OTHER_WEDDINGS = 20;
+    private static final int OTHER_WEDDING_PHOTOS = 500;
+
+    @Param({"1000", "10000"})
+    public int photos;
+
+    private BenchmarkContext context;
+    private PhotoRepository photoRepository;
+    private WeddingRepository weddingRepository;
+    private Wedding wedding;
+    private Long middleId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = BenchmarkContext.start();
+        photoRepository = context.bean(PhotoRepository.class);
+        weddingRepository = context.bean(WeddingRepository.class);
+
+        for (int i = 0; i < OTHER_WEDDINGS; i++) {
+            context.createWedding("OTHER" + i, OTHER_WEDDING_PHOTOS);
+        }
+        wedding = context.createWedding("BENCH", photos);
+        List<PhotoRowDto> rows = photoRepository.findRowsByWeddingId(wedding.getId());
+        middleId = rows.get(rows.size() / 2).id();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+    }
+
+    @Benchmark
+    public List<PhotoRowDto> findAllRows() {
+        return photoRepository.findRowsByWeddingId(wedding.getId());
+    }
+
+    @Benchmark
+    public List<PhotoRowDto> firstKeysetPage() {
+        return photoRepository.findRowsByWeddingIdAfter(wedding.getId(), 0L, Limit.of(PAGE_SIZE));
+    }
+
+    @Benchmark
+    public List<PhotoRowDto> middleKeysetPage() {
+        return photoRepository.findRowsByWeddingIdAfter(wedding.getId(), middleId, Limit.of(PAGE_SIZE));
+    }
+
+    @Benchmark
+    public long countPhotos() {
+        return photoRepository.countByWeddingId(wedding.getId());
+    }
+
+    @Benchmark
+    public List<WeddingSummaryDto> weddingSummaries() {
+        return weddingRepository.findAllSummaries();
+    }
+}
@@ -0,0 +1,78 @@
+package com.PJ.Project.benchmark;
+
+import com.PJ.Project.service.ImageCacheService;
+import com.PJ.Project.service.ZipArchiveService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construirea arhivei ZIP din POST /api/gallery/download/zip (ZipArchiveService.writeZip) cu originalele
+ * deja in cache-ul de pe disc: prefetch, citire si scriere STORED, fara reteaua clientului sau Drive.
+ * Volumul unei operatii este files * fileSizeKb; throughput-ul in MB/s se obtine din timpul mediu.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ZipAssemblyBenchmark {
+
+    @Param({"100"})
+    public int files;
+
+    @Param({"256", "2048"})
+    public int fileSizeKb;
+
+    private BenchmarkContext context;
+    private ZipArchiveService zipArchiveService;
+    private List<String> fileIds;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = BenchmarkContext.start();
+        zipArchiveService = context.bean(ZipArchiveService.class);
+        context.createWedding("ZIP", files);
+
+        // continut aleator: la fel de necompresibil ca un JPEG
+        ImageCacheService imageCacheService = context.bean(ImageCacheService.class);
+        Random random = new Random(42);
+        byte[] content = new byte[fileSizeKb * 1024];
+        fileIds = new ArrayList<>(files);
+        for (int i = 0; i < files; i++) {
+            String fileId = "ZIP-" + i;
+            random.nextBytes(content);
+            imageCacheService.put(fileId, new ByteArrayInputStream(content));
+            fileIds.add(fileId);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+    }
+
+    @Benchmark
+    public int writeZip() throws IOException {
+        return zipArchiveService.writeZip(fileIds, OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,56 @@
+package com.PJ.Project.config;
+
+import com.PJ.Project.controller.Bulkhead;
+import com.PJ.Project.service.BulkheadService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Ocupa locul in bulkhead-ul declarat cu @Bulkhead inainte de controller si il elibereaza dupa ce
+ * raspunsul a fost scris complet. Pentru raspunsurile asincrone (ZIP) locul ramane ocupat pana la
+ * dispatch-ul final, cand stream-ul s-a terminat, a expirat sau clientul a inchis conexiunea.
+ * O cerere refuzata primeste direct 503 cu Retry-After, fara corp: clientii cer imagini sau ZIP,
+ * nu JSON, asa ca raspunsul nu trece prin GlobalExceptionHandler.
+ */
+@Component
+@RequiredArgsConstructor
+public class BulkheadInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = BulkheadInterceptor.class.getName() + ".PERMIT";
+
+    private final BulkheadService bulkheadService;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod method) || request.getAttribute(PERMIT_ATTRIBUTE) != null) {
+            // dispatch-ul asincron al unei cereri care are deja locul
+            return true;
+        }
+        Bulkhead bulkhead = method.getMethodAnnotation(Bulkhead.class);
+        if (bulkhead == null) {
+            return true;
+        }
+        if (!bulkheadService.tryAcquire(bulkhead.value())) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(bulkheadService.getRetryAfterSeconds()));
+            return false;
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, bulkhead.value());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object name = request.getAttribute(PERMIT_ATTRIBUTE);
+        if (name != null) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            bulkheadService.release((String) name);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.PJ.Project.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+
+/**
+ * Activeaza completarea automata a created_at / updated_at din BaseEntity
+ */
+@Configuration
+@EnableJpaAuditing
+public class JpaAuditingConfig {
+}
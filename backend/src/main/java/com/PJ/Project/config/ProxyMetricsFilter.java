@@ -0,0 +1,191 @@
+package com.PJ.Project.config;
+
+import com.PJ.Project.service.MetricsService;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Masoara endpoint-urile galeriei si ale proxy-ului de imagini: durata pana la scrierea completa
+ * a raspunsului, bytes transmisi (inainte de compresia Tomcat) si cererile in curs, pe endpoint.
+ * Raspunsurile asincrone (ZIP) sunt inregistrate la terminarea stream-ului.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProxyMetricsFilter extends OncePerRequestFilter {
+
+    private final MetricsService metricsService;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return endpoint(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String endpoint = endpoint(request);
+        LongAdder bytes = new LongAdder();
+        Recorder recorder = new Recorder(endpoint, bytes, System.nanoTime());
+        metricsService.gauge("proxy.in_flight", "endpoint", endpoint).incrementAndGet();
+        try {
+            chain.doFilter(request, new CountingResponse(response, bytes));
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(recorder);
+            } else {
+                recorder.record();
+            }
+        }
+    }
+
+    // clasa endpoint-ului dupa URL; null pentru cererile care nu sunt masurate
+    private static String endpoint(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.startsWith("/api/v2/gallery/")) {
+            return "gallery_v2";
+        }
+        if (!path.startsWith("/api/gallery/")) {
+            return null;
+        }
+        if (path.startsWith("/api/gallery/thumbnail/")) {
+            return "thumbnail";
+        }
+        if (path.startsWith("/api/gallery/image/")) {
+            return "image";
+        }
+        if (path.equals("/api/gallery/download/zip")) {
+            return "zip";
+        }
+        if (path.startsWith("/api/gallery/download/")) {
+            return "download";
+        }
+        if (path.endsWith("/archive")) {
+            return "archive";
+        }
+        return "gallery";
+    }
+
+    /**
+     * Inregistreaza cererea o singura data: la sfarsitul filtrului sau, pentru raspunsurile
+     * asincrone, la terminarea (sau expirarea) cererii
+     */
+    private final class Recorder implements AsyncListener {
+
+        private final String endpoint;
+        private final LongAdder bytes;
+        private final long startNanos;
+        private final AtomicBoolean recorded = new AtomicBoolean();
+
+        Recorder(String endpoint, LongAdder bytes, long startNanos) {
+            this.endpoint = endpoint;
+            this.bytes = bytes;
+            this.startNanos = startNanos;
+        }
+
+        void record() {
+            if (!recorded.compareAndSet(false, true)) {
+                return;
+            }
+            metricsService.gauge("proxy.in_flight", "endpoint", endpoint).decrementAndGet();
+            metricsService.timer("proxy.request", "endpoint", endpoint).recordSince(startNanos);
+            metricsService.count("proxy.bytes", "endpoint", endpoint, bytes.sum());
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            record();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            record();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            record();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // listener-ul ramane inregistrat pana la terminarea cererii
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+    private static final class CountingResponse extends HttpServletResponseWrapper {
+
+        private final LongAdder bytes;
+        private ServletOutputStream outputStream;
+
+        CountingResponse(HttpServletResponse response, LongAdder bytes) {
+            super(response);
+            this.bytes = bytes;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new CountingOutputStream(super.getOutputStream(), bytes);
+            }
+            return outputStream;
+        }
+    }
+
+    private static final class CountingOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+        private final LongAdder bytes;
+
+        CountingOutputStream(ServletOutputStream delegate, LongAdder bytes) {
+            this.delegate = delegate;
+            this.bytes = bytes;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            bytes.increment();
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) throws IOException {
+            delegate.write(buffer, offset, length);
+            bytes.add(length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+}
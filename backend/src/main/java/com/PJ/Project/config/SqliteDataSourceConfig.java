@@ -0,0 +1,64 @@
+package com.PJ.Project.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Conexiunile SQLite: baza ruleaza in modul WAL, cu o singura conexiune pentru scriere si un pool
+ * separat pentru citiri. SQLite permite oricum un singur writer; cu WAL cititorii nu asteapta dupa
+ * el, asa ca galeria se serveste normal in timpul unei sincronizari. Tranzactiile read-only
+ * (@Transactional(readOnly = true), inclusiv metodele de citire ale repository-urilor) primesc conexiuni
+ * din pool-ul de citire, restul conexiunea de scriere. Open-in-view este oprit: altfel prima interogare
+ * a unei cereri ar fixa conexiunea (si pool-ul ei) pana la sfarsitul raspunsului.
+ */
+@Configuration
+@Slf4j
+public class SqliteDataSourceConfig {
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource sqliteWriterDataSource(DataSourceProperties properties,
+                                                   @Value("${fotoit.sqlite.busy-timeout-ms:5000}") int busyTimeoutMs) {
+        HikariDataSource writer = createPool(properties, "sqlite-writer", 1, busyTimeoutMs);
+        // WAL este persistent in fisierul bazei; synchronous=NORMAL este sigur in modul WAL
+        writer.addDataSourceProperty("journal_mode", "WAL");
+        writer.addDataSourceProperty("synchronous", "NORMAL");
+        return writer;
+    }
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource sqliteReaderDataSource(DataSourceProperties properties,
+                                                   @Value("${fotoit.sqlite.reader-pool-size:4}") int readerPoolSize,
+                                                   @Value("${fotoit.sqlite.busy-timeout-ms:5000}") int busyTimeoutMs) {
+        return createPool(properties, "sqlite-reader", Math.max(1, readerPoolSize), busyTimeoutMs);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("sqliteWriterDataSource") DataSource writer,
+                                 @Qualifier("sqliteReaderDataSource") DataSource reader) {
+        // conexiunea fizica se alege abia la primul statement, dupa ce tranzactia a fost marcata read-only
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(writer);
+        dataSource.setReadOnlyDataSource(reader);
+        log.info("SQLite: WAL, 1 conexiune de scriere si {} de citire", ((HikariDataSource) reader).getMaximumPoolSize());
+        return dataSource;
+    }
+
+    private static HikariDataSource createPool(DataSourceProperties properties, String name, int size, int busyTimeoutMs) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName(name);
+        pool.setMaximumPoolSize(size);
+        pool.setMinimumIdle(1);
+        // asteapta lock-ul bazei in loc sa esueze imediat cu SQLITE_BUSY
+        pool.addDataSourceProperty("busy_timeout", String.valueOf(busyTimeoutMs));
+        return pool;
+    }
+}
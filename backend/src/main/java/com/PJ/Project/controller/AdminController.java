@@ -2,6 +2,7 @@ package com.PJ.Project.controller;
 
 import com.PJ.Project.dto.WeddingDto;
 import com.PJ.Project.entity.Wedding;
+import com.PJ.Project.service.SyncJobService;
 import com.PJ.Project.service.WeddingService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -11,8 +12,6 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.io.IOException;
-
 @Controller
 @RequestMapping("/admin")
 @RequiredArgsConstructor
@@ -20,6 +19,7 @@ import java.io.IOException;
 public class AdminController {
 
     private final WeddingService weddingService;
+    private final SyncJobService syncJobService;
 
     @GetMapping
     public String dashboard(Model model) {
@@ -40,14 +40,14 @@ public class AdminController {
         return "redirect:/admin";
     }
 
+    // Fara JavaScript: porneste job-ul de sincronizare in fundal; progresul apare pe dashboard
     @PostMapping("/{id}/sync")
     public String syncPhotos(@PathVariable Long id, RedirectAttributes redirectAttributes) {
         try {
-            int count = weddingService.syncPhotosFromGoogleDrive(id);
-            redirectAttributes.addFlashAttribute("success", 
-                "Sincronizate " + count + " poze cu succes!");
-        } catch (IOException e) {
-            log.error("Eroare la sincronizare poze", e);
+            syncJobService.start(id);
+            redirectAttributes.addFlashAttribute("success", "Sincronizarea a pornit in fundal.");
+        } catch (Exception e) {
+            log.error("Eroare la pornirea sincronizarii", e);
             redirectAttributes.addFlashAttribute("error", 
                 "Eroare la sincronizare: " + e.getMessage());
         }
@@ -70,6 +70,8 @@ public class AdminController {
     public String weddingDetails(@PathVariable Long id, Model model) {
         Wedding wedding = weddingService.getWeddingById(id);
         model.addAttribute("wedding", wedding);
+        // numarul de poze printr-un query count, fara a incarca colectia wedding.photos
+        model.addAttribute("photoCount", weddingService.countPhotos(id));
         return "admin/wedding-details";
     }
 }
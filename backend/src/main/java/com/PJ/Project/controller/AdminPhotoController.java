@@ -0,0 +1,26 @@
+package com.PJ.Project.controller;
+
+import com.PJ.Project.dto.GalleryResponseDto;
+import com.PJ.Project.service.WeddingService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/admin/weddings")
+@RequiredArgsConstructor
+public class AdminPhotoController {
+
+    private final WeddingService weddingService;
+
+    // grila de poze din pagina de detalii: pagini mici dupa cursor, cu URL-uri de thumbnail
+    @GetMapping("/{id}/photos")
+    public GalleryResponseDto getPhotos(@PathVariable Long id,
+                                        @RequestParam(required = false) String cursor,
+                                        @RequestParam(required = false, defaultValue = "60") int size) {
+        return weddingService.getPhotoPage(id, cursor, size);
+    }
+}
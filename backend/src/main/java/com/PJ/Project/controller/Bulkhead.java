@@ -0,0 +1,17 @@
+package com.PJ.Project.controller;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Endpoint-ul ruleaza in bulkhead-ul cu numele dat (vezi BulkheadService): locul este ocupat
+ * de la intrarea in controller pana la scrierea completa a raspunsului, inclusiv pentru raspunsurile
+ * transmise asincron (StreamingResponseBody)
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Bulkhead {
+    String value();
+}
@@ -0,0 +1,24 @@
+package com.PJ.Project.controller;
+
+import com.PJ.Project.dto.BulkheadStatsDto;
+import com.PJ.Project.service.BulkheadService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin/bulkheads")
+@RequiredArgsConstructor
+public class BulkheadAdminController {
+
+    private final BulkheadService bulkheadService;
+
+    // cereri active / in coada si refuzuri pentru fiecare bulkhead
+    @GetMapping
+    public List<BulkheadStatsDto> getBulkheadStats() {
+        return bulkheadService.getStats();
+    }
+}
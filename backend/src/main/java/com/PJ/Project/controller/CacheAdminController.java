@@ -0,0 +1,22 @@
+package com.PJ.Project.controller;
+
+import com.PJ.Project.dto.GalleryCacheStatsDto;
+import com.PJ.Project.service.GalleryCacheService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/admin/cache")
+@RequiredArgsConstructor
+public class CacheAdminController {
+
+    private final GalleryCacheService galleryCacheService;
+
+    // starea cache-ului de galerii (intrari, hit/miss, evacuari)
+    @GetMapping("/gallery")
+    public GalleryCacheStatsDto getGalleryCacheStats() {
+        return galleryCacheService.getStats();
+    }
+}
@@ -0,0 +1,31 @@
+package com.PJ.Project.controller;
+
+import com.PJ.Project.dto.DriveCoalescingStatsDto;
+import com.PJ.Project.dto.DriveLimiterStatsDto;
+import com.PJ.Project.service.DriveFetchCoalescer;
+import com.PJ.Project.service.DriveRequestLimiter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/admin/drive")
+@RequiredArgsConstructor
+public class DriveAdminController {
+
+    private final DriveRequestLimiter driveRequestLimiter;
+    private final DriveFetchCoalescer driveFetchCoalescer;
+
+    // starea limitatorului de cereri catre Google Drive (limita curenta, cereri in asteptare)
+    @GetMapping("/limiter")
+    public DriveLimiterStatsDto getLimiterStats() {
+        return driveRequestLimiter.getStats();
+    }
+
+    // descarcarile comune: cate au fost pornite si cate cereri au asteptat una deja in curs
+    @GetMapping("/coalescing")
+    public DriveCoalescingStatsDto getCoalescingStats() {
+        return driveFetchCoalescer.getStats();
+    }
+}
@@ -1,22 +1,43 @@
 package com.PJ.Project.controller;
 
-import com.PJ.Project.dto.GalleryResponseDto;
-import com.PJ.Project.service.GoogleDriveService;
+import com.PJ.Project.entity.GalleryArchive;
+import com.PJ.Project.entity.Wedding;
+import com.PJ.Project.exception.DriveQuotaExceededException;
+import com.PJ.Project.service.BulkheadService;
+import com.PJ.Project.service.GalleryArchiveService;
+import com.PJ.Project.service.GalleryCacheService;
+import com.PJ.Project.service.GalleryCacheService.GallerySnapshot;
+import com.PJ.Project.service.ImageProxyService;
+import com.PJ.Project.service.ImageProxyService.ImageBody;
+import com.PJ.Project.service.ImageProxyService.ImageValidators;
+import com.PJ.Project.service.ThumbnailService;
 import com.PJ.Project.service.WeddingService;
+import com.PJ.Project.service.ZipArchiveService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.List;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/gallery")
@@ -25,149 +46,195 @@ import java.util.zip.ZipOutputStream;
 @CrossOrigin(origins = "*")
 public class GalleryApiController {
 
+    // originalul servit in locul unei variante (coada plina sau imagine nedecodabila): cu validatorii
+    // originalului si fara cache, ca browser-ul sa nu-l pastreze (si sa primeasca 304) sub URL-ul variantei
+    private static final String FALLBACK_CACHE_CONTROL = "no-store";
+
     private final WeddingService weddingService;
-    
-    @Autowired(required = false)
-    private GoogleDriveService googleDriveService;
+    private final ImageProxyService imageProxyService;
+    private final ThumbnailService thumbnailService;
+    private final ZipArchiveService zipArchiveService;
+    private final GalleryArchiveService galleryArchiveService;
+    private final GalleryCacheService galleryCacheService;
 
-    @GetMapping("/{code}")
-    public ResponseEntity<GalleryResponseDto> getGallery(
+    @GetMapping(value = "/{code}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getGallery(
             @PathVariable String code,
             @RequestParam(required = false, defaultValue = "5") int page,
-            @RequestParam(required = false, defaultValue = "20") int size) {
-        GalleryResponseDto gallery;
-        if (page == 0 && size == 20) {
-            // Pentru compatibilitate, daca nu sunt parametri, returneaza toate pozele
-            gallery = weddingService.getGalleryByCode(code);
-        } else {
-            gallery = weddingService.getGalleryByCodePaginated(code, page, size);
+            @RequestParam(required = false, defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest) {
+        // Cu ?cursor= (gol pentru prima pagina) paginarea este keyset: raspunsul contine nextCursor
+        // Servit din cache deja serializat si comprimat; intrarile sunt invalidate la commit-ul sincronizarii sau stergerii
+        GallerySnapshot snapshot = galleryCacheService.getGallery(code, page, size, cursor);
+        return GallerySnapshotResponses.serve(snapshot, acceptEncoding, webRequest);
+    }
+    // pentru a descarca arhiva pre-construita cu toate pozele evenimentului
+    // Fisierul este servit de pe disc, cu suport pentru reluare (Range / If-Range) si ETag din checksum
+    // Fara arhiva gata raspunde 404 (fara efecte secundare); construirea se cere cu POST pe aceeasi adresa
+    @Bulkhead(BulkheadService.ARCHIVES)
+    @GetMapping("/{code}/archive")
+    public ResponseEntity<Resource> downloadArchive(@PathVariable String code, WebRequest webRequest) {
+        Wedding wedding = weddingService.getWeddingByCode(code);
+        Optional<GalleryArchive> archive = galleryArchiveService.findReadyArchive(wedding);
+        if (archive.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        GalleryArchive ready = archive.get();
+        String etag = "\"" + ready.getChecksum() + "\"";
+        long lastModified = ready.getBuiltAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        FileSystemResource file = new FileSystemResource(ready.getFilePath());
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/zip"));
+        String zipFilename = (wedding.getName() != null ? wedding.getName() : "galerie") + ".zip";
+        headers.setContentDispositionFormData("attachment", zipFilename);
+        headers.setETag(etag);
+        headers.setLastModified(lastModified);
+        
+        if (webRequest.getHeader(HttpHeaders.RANGE) != null && !ifRangeMatches(webRequest, etag, lastModified)) {
+            // reluare pentru o arhiva reconstruita intre timp: arhiva completa (200), nu bytes din doua fisiere
+            // InputStreamResource nu este transformat de Spring in raspuns partial
+            headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+            headers.setContentLength(ready.getSizeBytes());
+            return new ResponseEntity<>(new InputStreamResource(file), headers, HttpStatus.OK);
         }
-        return ResponseEntity.ok(gallery);
+        return new ResponseEntity<>(file, headers, HttpStatus.OK);
+    }
+
+    // cere construirea arhivei cu toate pozele, daca nu este gata si nici in curs de construire
+    @PostMapping("/{code}/archive")
+    public ResponseEntity<Void> requestArchive(@PathVariable String code) {
+        Wedding wedding = weddingService.getWeddingByCode(code);
+        if (galleryArchiveService.findReadyArchive(wedding).isPresent()) {
+            return ResponseEntity.ok().build();
+        }
+        galleryArchiveService.requestBuild(wedding);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header(HttpHeaders.RETRY_AFTER, "60")
+                .build();
     }
     // pentru a obtine thumbnail-ul imaginii
+    @Bulkhead(BulkheadService.THUMBNAILS)
     @GetMapping("/thumbnail/{fileId}")
-    public ResponseEntity<byte[]> getThumbnail(@PathVariable String fileId) {
-        if (googleDriveService == null) {
+    public ResponseEntity<Resource> getThumbnail(@PathVariable String fileId,
+                                                 @RequestParam(required = false) Integer w,
+                                                 WebRequest webRequest) {
+        if (!imageProxyService.isAvailable()) {
             return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
         }
         
+        String cacheControl = "public, max-age=3600";
+        Optional<ImageValidators> validators =
+                imageProxyService.getValidators(fileId, "w" + thumbnailService.resolveWidth(w));
+        if (isNotModified(webRequest, validators)) {
+            return notModified(validators.get(), cacheControl);
+        }
+        
         try {
-            // Descarca fisierul complet si il servim ca thumbnail
-            // Browser-ul va incarca imaginea, dar CSS-ul o va face thumbnail
-            byte[] fileBytes = googleDriveService.downloadFile(fileId);
-            
-            if (fileBytes != null && fileBytes.length > 0) {
-                HttpHeaders headers = new HttpHeaders();
-                // Detecteaza tipul real al imaginii sau foloseste IMAGE_JPEG ca default
-                MediaType contentType = detectImageType(fileBytes);
-                headers.setContentType(contentType);
-                headers.setContentLength(fileBytes.length);
-                headers.setCacheControl("public, max-age=3600");
-                headers.set("Access-Control-Allow-Origin", "*");
-                headers.set("Access-Control-Allow-Methods", "GET, OPTIONS");
-                headers.set("Access-Control-Allow-Headers", "*");
-                return new ResponseEntity<>(fileBytes, headers, HttpStatus.OK);
+            // Varianta redimensionata pe server, cea mai apropiata de latimea ceruta (?w=)
+            // Daca imaginea nu poate fi redimensionata, se serveste originalul
+            byte[] thumbnail = thumbnailService.getThumbnail(fileId, w, () -> imageProxyService.loadImage(fileId));
+            if (thumbnail == null) {
+                return imageResponse(releaseAfterResponse(imageProxyService.openOriginal(fileId)),
+                        FALLBACK_CACHE_CONTROL, originalValidators(fileId, webRequest));
             }
-            
-            return ResponseEntity.notFound().build();
+            return imageResponse(ImageBody.jpeg(thumbnail), cacheControl, validators);
+        } catch (DriveQuotaExceededException e) {
+            return driveQuotaExceeded(e);
         } catch (IOException e) {
             log.error("Eroare la descarcarea thumbnail-ului pentru fileId: {}", fileId, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
     // pentru a obtine imaginea completa
+    @Bulkhead(BulkheadService.IMAGES)
     @GetMapping("/image/{fileId}")
-    public ResponseEntity<byte[]> getImage(@PathVariable String fileId) {
-        if (googleDriveService == null) {
+    public ResponseEntity<Resource> getImage(@PathVariable String fileId,
+                                             @RequestParam(required = false) Integer w,
+                                             WebRequest webRequest) {
+        if (!imageProxyService.isAvailable()) {
             return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
         }
         
+        String cacheControl = "public, max-age=86400"; // Cache 24h pentru imagini complete
+        Optional<ImageValidators> validators = imageProxyService.getValidators(fileId,
+                w != null ? "w" + thumbnailService.resolveWidth(w) : null);
+        if (isNotModified(webRequest, validators)) {
+            return notModified(validators.get(), cacheControl);
+        }
+        
         try {
-            byte[] fileBytes = googleDriveService.downloadFile(fileId);
-            
-            if (fileBytes != null && fileBytes.length > 0) {
-                HttpHeaders headers = new HttpHeaders();
-                // Detecteaza tipul real al imaginii sau foloseste IMAGE_JPEG ca default
-                MediaType contentType = detectImageType(fileBytes);
-                headers.setContentType(contentType);
-                headers.setContentLength(fileBytes.length);
-                headers.setCacheControl("public, max-age=86400"); // Cache 24h pentru imagini complete
-                headers.set("Access-Control-Allow-Origin", "*");
-                headers.set("Access-Control-Allow-Methods", "GET, OPTIONS");
-                headers.set("Access-Control-Allow-Headers", "*");
-                return new ResponseEntity<>(fileBytes, headers, HttpStatus.OK);
+            // Cu ?w= se serveste varianta redimensionata (ex: pentru lightbox pe mobil)
+            byte[] variant = w != null
+                    ? thumbnailService.getThumbnail(fileId, w, () -> imageProxyService.loadImage(fileId))
+                    : null;
+            if (variant != null) {
+                return imageResponse(ImageBody.jpeg(variant), cacheControl, validators);
             }
-            
-            return ResponseEntity.notFound().build();
+            List<HttpRange> ranges = requestedRanges(webRequest);
+            ImageBody body = releaseAfterResponse(imageProxyService.openOriginal(fileId, ranges));
+            if (!isSatisfiable(ranges, body)) {
+                return rangeNotSatisfiable(body);
+            }
+            return w != null
+                    ? imageResponse(body, FALLBACK_CACHE_CONTROL, originalValidators(fileId, webRequest))
+                    : imageResponse(body, cacheControl, validators);
+        } catch (DriveQuotaExceededException e) {
+            return driveQuotaExceeded(e);
         } catch (IOException e) {
             log.error("Eroare la descarcarea imaginii pentru fileId: {}", fileId, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
-    
-    /**
-     * Detecteaza tipul imaginii bazat pe header-urile magice (magic bytes)
-     */
-    private MediaType detectImageType(byte[] imageBytes) {
-        if (imageBytes == null || imageBytes.length < 4) {
-            return MediaType.IMAGE_JPEG;
-        }
-        
-        // Verifica magic bytes pentru diferite formate
-        // JPEG: FF D8 FF
-        if (imageBytes[0] == (byte)0xFF && imageBytes[1] == (byte)0xD8 && imageBytes[2] == (byte)0xFF) {
-            return MediaType.IMAGE_JPEG;
-        }
-        // PNG: 89 50 4E 47
-        if (imageBytes[0] == (byte)0x89 && imageBytes[1] == 0x50 && imageBytes[2] == 0x4E && imageBytes[3] == 0x47) {
-            return MediaType.IMAGE_PNG;
-        }
-        // GIF: 47 49 46 38
-        if (imageBytes[0] == 0x47 && imageBytes[1] == 0x49 && imageBytes[2] == 0x46 && imageBytes[3] == 0x38) {
-            return MediaType.IMAGE_GIF;
-        }
-        // WebP: RIFF...WEBP
-        if (imageBytes.length >= 12 && 
-            imageBytes[0] == 0x52 && imageBytes[1] == 0x49 && imageBytes[2] == 0x46 && imageBytes[3] == 0x46 &&
-            imageBytes[8] == 0x57 && imageBytes[9] == 0x45 && imageBytes[10] == 0x42 && imageBytes[11] == 0x50) {
-            return MediaType.parseMediaType("image/webp");
-        }
-        
-        // Default la JPEG daca nu se poate detecta
-        return MediaType.IMAGE_JPEG;
-    }
 
     // pentru a descarca imaginea completa
+    @Bulkhead(BulkheadService.IMAGES)
     @GetMapping("/download/{fileId}")
-    public ResponseEntity<byte[]> downloadImage(@PathVariable String fileId, 
-                                                @RequestParam(required = false) String filename) {
-        if (googleDriveService == null) {
+    public ResponseEntity<Resource> downloadImage(@PathVariable String fileId, 
+                                                  @RequestParam(required = false) String filename,
+                                                  WebRequest webRequest) {
+        if (!imageProxyService.isAvailable()) {
             return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
         }
         
+        Optional<ImageValidators> validators = imageProxyService.getValidators(fileId, null);
+        if (isNotModified(webRequest, validators)) {
+            return notModified(validators.get(), null);
+        }
+        
         try {
-            byte[] fileBytes = googleDriveService.downloadFile(fileId);
-            
-            if (fileBytes != null && fileBytes.length > 0) {
-                HttpHeaders headers = new HttpHeaders();
-                headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
-                headers.setContentLength(fileBytes.length);
-                headers.setContentDispositionFormData("attachment", 
-                    filename != null ? filename : "image.jpg");
-                return new ResponseEntity<>(fileBytes, headers, HttpStatus.OK);
+            List<HttpRange> ranges = requestedRanges(webRequest);
+            ImageBody body = releaseAfterResponse(imageProxyService.openOriginal(fileId, ranges));
+            if (body.contentLength() == 0) {
+                return ResponseEntity.notFound().build();
+            }
+            if (!isSatisfiable(ranges, body)) {
+                return rangeNotSatisfiable(body);
             }
             
-            return ResponseEntity.notFound().build();
+            // Content-Length si raspunsurile partiale (206, Accept-Ranges) sunt calculate de Spring din Resource
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+            headers.setContentDispositionFormData("attachment", 
+                filename != null ? filename : "image.jpg");
+            validators.ifPresent(value -> applyValidators(headers, value));
+            return new ResponseEntity<>(body.resource(), headers, HttpStatus.OK);
+        } catch (DriveQuotaExceededException e) {
+            return driveQuotaExceeded(e);
         } catch (IOException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
     // pentru a descarca mai multe imagini ca ZIP
+    // Arhiva este transmisa clientului pe masura ce este construita
+    @Bulkhead(BulkheadService.ARCHIVES)
     @PostMapping("/download/zip")
-    public ResponseEntity<byte[]> downloadImagesAsZip(@RequestBody List<String> fileIds,
-                                                       @RequestParam(required = false) String galleryName) {
-        if (googleDriveService == null) {
+    public ResponseEntity<StreamingResponseBody> downloadImagesAsZip(@RequestBody List<String> fileIds,
+                                                                     @RequestParam(required = false) String galleryName) {
+        if (!imageProxyService.isAvailable()) {
             return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
         }
         
@@ -175,52 +242,140 @@ public class GalleryApiController {
             return ResponseEntity.badRequest().build();
         }
         
-        try {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            ZipOutputStream zos = new ZipOutputStream(baos);
-            
-            int successCount = 0;
-            for (String fileId : fileIds) {
-                try {
-                    byte[] fileBytes = googleDriveService.downloadFile(fileId);
-                    if (fileBytes != null && fileBytes.length > 0) {
-                        // Obtine numele fisierului
-                        String filename = googleDriveService.getFileName(fileId);
-                        if (filename == null || filename.isEmpty()) {
-                            filename = "image_" + fileId + ".jpg";
-                        }
-                        
-                        ZipEntry entry = new ZipEntry(filename);
-                        zos.putNextEntry(entry);
-                        zos.write(fileBytes);
-                        zos.closeEntry();
-                        successCount++;
-                    }
-                } catch (Exception e) {
-                    log.warn("Nu s-a putut adauga fisierul {} in ZIP", fileId, e);
-                }
-            }
-            
-            zos.close();
-            
-            if (successCount == 0) {
-                return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
-            }
-            
-            byte[] zipBytes = baos.toByteArray();
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
-            headers.setContentLength(zipBytes.length);
-            String zipFilename = (galleryName != null ? galleryName : "galerie") + ".zip";
-            headers.setContentDispositionFormData("attachment", zipFilename);
-            
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+        String zipFilename = (galleryName != null ? galleryName : "galerie") + ".zip";
+        headers.setContentDispositionFormData("attachment", zipFilename);
+        
+        StreamingResponseBody body = out -> {
+            int successCount = zipArchiveService.writeZip(fileIds, out);
             log.info("Descarcat ZIP cu {} fisiere", successCount);
-            return new ResponseEntity<>(zipBytes, headers, HttpStatus.OK);
-            
-        } catch (IOException e) {
-            log.error("Eroare la crearea ZIP-ului", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        };
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    // cota Google Drive depasita: clientul poate reincerca mai tarziu, nu este o eroare interna
+    private static <T> ResponseEntity<T> driveQuotaExceeded(DriveQuotaExceededException e) {
+        log.warn(e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .build();
+    }
+
+    // originalul din cache ramane pe disc pana dupa scrierea raspunsului, chiar daca este evacuat intre timp
+    private static ImageBody releaseAfterResponse(ImageBody body) {
+        RequestContextHolder.currentRequestAttributes().registerDestructionCallback(
+                ImageBody.class.getName() + "@" + System.identityHashCode(body), () -> {
+                    try {
+                        body.close();
+                    } catch (IOException e) {
+                        log.warn("Nu s-a putut elibera imaginea din cache", e);
+                    }
+                }, RequestAttributes.SCOPE_REQUEST);
+        return body;
+    }
+
+    // intervalele cerute, transmise mai departe catre Drive cand fisierul nu este in cache
+    private static List<HttpRange> requestedRanges(WebRequest webRequest) {
+        String range = webRequest.getHeader(HttpHeaders.RANGE);
+        if (range == null) {
+            return List.of();
+        }
+        try {
+            return HttpRange.parseRanges(range);
+        } catch (IllegalArgumentException e) {
+            return List.of();
+        }
+    }
+
+    // If-Range: Range se aplica doar daca reprezentarea este aceeasi (ETag puternic identic sau aceeasi data)
+    private static boolean ifRangeMatches(WebRequest webRequest, String etag, long lastModified) {
+        String ifRange = webRequest.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        ifRange = ifRange.trim();
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            // ETag-urile slabe nu sunt niciodata egale la comparatia puternica
+            return ifRange.equals(etag);
+        }
+        try {
+            long date = ZonedDateTime.parse(ifRange, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            return date / 1000 == lastModified / 1000;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    // fara dimensiune cunoscuta (sau fisier gol) Range este ignorat: raspunsul este tot fisierul sau 404
+    private static boolean isSatisfiable(List<HttpRange> ranges, ImageBody body) {
+        if (ranges.isEmpty() || body.contentLength() <= 0) {
+            return true;
+        }
+        try {
+            HttpRange.toResourceRegions(ranges, body.resource());
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    // 416 fara corp - altfel Spring ar trimite tot fisierul (si l-ar descarca din Drive)
+    private static ResponseEntity<Resource> rangeNotSatisfiable(ImageBody body) {
+        return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                .header(HttpHeaders.CONTENT_RANGE, "bytes */" + body.contentLength())
+                .build();
+    }
+
+    // cererile conditionale primesc 304 doar pe baza metadatelor din baza de date, fara apel catre Drive
+    private static boolean isNotModified(WebRequest webRequest, Optional<ImageValidators> validators) {
+        return validators.isPresent()
+                && webRequest.checkNotModified(validators.get().etag(), validators.get().lastModified());
+    }
+
+    private static ResponseEntity<Resource> notModified(ImageValidators validators, String cacheControl) {
+        HttpHeaders headers = new HttpHeaders();
+        applyValidators(headers, validators);
+        if (cacheControl != null) {
+            headers.setCacheControl(cacheControl);
         }
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).build();
+    }
+
+    // checkNotModified a scris deja in raspuns ETag-ul variantei; il inlocuieste cu cel al originalului
+    private Optional<ImageValidators> originalValidators(String fileId, WebRequest webRequest) {
+        Optional<ImageValidators> validators = imageProxyService.getValidators(fileId, null);
+        HttpServletResponse response = webRequest instanceof NativeWebRequest nativeRequest
+                ? nativeRequest.getNativeResponse(HttpServletResponse.class)
+                : null;
+        if (response != null) {
+            validators.ifPresent(value -> response.setHeader(HttpHeaders.ETAG, value.etag()));
+        }
+        return validators;
+    }
+
+    private static void applyValidators(HttpHeaders headers, ImageValidators validators) {
+        headers.setETag(validators.etag());
+        if (validators.lastModified() >= 0) {
+            headers.setLastModified(validators.lastModified());
+        }
+    }
+
+    private ResponseEntity<Resource> imageResponse(ImageBody body, String cacheControl,
+                                                   Optional<ImageValidators> validators) {
+        if (body.contentLength() == 0) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        // Content-Length si raspunsurile partiale (206, Accept-Ranges) sunt calculate de Spring din Resource
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(body.contentType());
+        headers.setCacheControl(cacheControl);
+        validators.ifPresent(value -> applyValidators(headers, value));
+        headers.set("Access-Control-Allow-Origin", "*");
+        headers.set("Access-Control-Allow-Methods", "GET, OPTIONS");
+        headers.set("Access-Control-Allow-Headers", "*");
+        return new ResponseEntity<>(body.resource(), headers, HttpStatus.OK);
     }
 }
 
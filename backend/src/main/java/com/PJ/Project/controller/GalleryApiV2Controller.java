@@ -0,0 +1,36 @@
+package com.PJ.Project.controller;
+
+import com.PJ.Project.service.GalleryCacheService;
+import com.PJ.Project.service.GalleryCacheService.GallerySnapshot;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+@RestController
+@RequestMapping("/api/v2/gallery")
+@RequiredArgsConstructor
+public class GalleryApiV2Controller {
+
+    private final GalleryCacheService galleryCacheService;
+
+    // galeria in format compact: sabloane de URL o singura data si cate un tuplu per poza
+    // Fara cursor returneaza toate pozele; cu ?cursor= (gol pentru prima pagina) pagini keyset
+    @GetMapping(value = "/{code}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getGallery(
+            @PathVariable String code,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "100") int size,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest) {
+        GallerySnapshot snapshot = galleryCacheService.getCompactGallery(code, cursor, size);
+        return GallerySnapshotResponses.serve(snapshot, acceptEncoding, webRequest);
+    }
+}
@@ -0,0 +1,70 @@
+package com.PJ.Project.controller;
+
+import com.PJ.Project.service.GalleryCacheService.GallerySnapshot;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+
+/**
+ * Raspunsul HTTP pentru o galerie din cache: alege codificarea (gzip sau necomprimat) dupa
+ * Accept-Encoding, trimite bytes-ii pregatiti si raspunde cu 304 cand ETag-ul coincide
+ */
+final class GallerySnapshotResponses {
+
+    private GallerySnapshotResponses() {
+    }
+
+    static ResponseEntity<byte[]> serve(GallerySnapshot snapshot, String acceptEncoding, WebRequest webRequest) {
+        boolean gzipped = acceptsGzip(acceptEncoding);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl("no-cache");
+        headers.setVary(List.of(HttpHeaders.ACCEPT_ENCODING));
+        headers.setETag(snapshot.etag(gzipped));
+        if (snapshot.lastModified() > 0) {
+            headers.setLastModified(snapshot.lastModified());
+        }
+        if (webRequest.checkNotModified(snapshot.etag(gzipped), snapshot.lastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).build();
+        }
+        if (gzipped) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return ResponseEntity.ok()
+                .headers(headers)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.body(gzipped));
+    }
+
+    // gzip acceptat in Accept-Encoding (direct sau prin *), fara q=0
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String coding = tokens[0].trim();
+            if (!coding.equalsIgnoreCase("gzip") && !coding.equals("*")) {
+                continue;
+            }
+            boolean rejected = false;
+            for (int i = 1; i < tokens.length; i++) {
+                String param = tokens[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        rejected = Double.parseDouble(param.substring(2)) <= 0;
+                    } catch (NumberFormatException e) {
+                        rejected = true;
+                    }
+                }
+            }
+            if (!rejected) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,28 @@
+package com.PJ.Project.controller;
+
+import com.PJ.Project.dto.MetricsDto;
+import com.PJ.Project.service.MetricsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/admin/metrics")
+@RequiredArgsConstructor
+public class MetricsAdminController {
+
+    private final MetricsService metricsService;
+
+    // latente Drive, bytes transmisi, cereri in curs, tipuri de imagini, durate de sincronizare
+    @GetMapping
+    public MetricsDto getMetrics() {
+        return metricsService.getSnapshot();
+    }
+
+    // aceleasi metrici in formatul text Prometheus
+    @GetMapping(value = "/prometheus", produces = "text/plain; version=0.0.4; charset=utf-8")
+    public String getPrometheusMetrics() {
+        return metricsService.toPrometheus();
+    }
+}
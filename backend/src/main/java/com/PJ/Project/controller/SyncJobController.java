@@ -0,0 +1,51 @@
+package com.PJ.Project.controller;
+
+import com.PJ.Project.dto.SyncJobDto;
+import com.PJ.Project.service.SyncJobService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.net.URI;
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin/sync-jobs")
+@RequiredArgsConstructor
+public class SyncJobController {
+
+    private final SyncJobService syncJobService;
+
+    // porneste sincronizarea in fundal (sau returneaza job-ul deja activ pentru eveniment)
+    @PostMapping
+    public ResponseEntity<SyncJobDto> startSync(@RequestParam Long weddingId) {
+        SyncJobDto job = syncJobService.start(weddingId);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .location(URI.create("/admin/sync-jobs/" + job.getId()))
+                .body(job);
+    }
+
+    // job-urile in asteptare sau in curs (pentru reatasarea dashboard-ului dupa refresh)
+    @GetMapping
+    public List<SyncJobDto> getActiveJobs() {
+        return syncJobService.findActive();
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<SyncJobDto> getJob(@PathVariable String jobId) {
+        return ResponseEntity.of(syncJobService.find(jobId));
+    }
+
+    // progresul live al job-ului (Server-Sent Events, evenimente "progress")
+    @GetMapping(value = "/{jobId}/events", produces = "text/event-stream")
+    public SseEmitter streamProgress(@PathVariable String jobId) {
+        return syncJobService.subscribe(jobId);
+    }
+
+    @PostMapping("/{jobId}/cancel")
+    public ResponseEntity<SyncJobDto> cancelJob(@PathVariable String jobId) {
+        return ResponseEntity.of(syncJobService.cancel(jobId));
+    }
+}
@@ -0,0 +1,20 @@
+package com.PJ.Project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkheadStatsDto {
+    private String name;
+    private int maxConcurrent;
+    private int maxQueued;
+    private int active;
+    private int queued;
+    private long accepted;
+    private long rejected;
+}
@@ -0,0 +1,38 @@
+package com.PJ.Project.dto;
+
+import com.PJ.Project.entity.EventType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Reprezentarea compacta (v2) a galeriei: campurile comune tuturor pozelor (URL-uri, evenimentul)
+ * apar o singura data, iar fiecare poza este un tuplu in ordinea din photoFields.
+ * URL-urile se obtin inlocuind {fileId} si {w} in sabloane.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompactGalleryDto {
+    private int version;
+    private Long weddingId;
+    private String code;
+    private EventType eventType;
+    private String name;
+    private String description;
+    // cu paginare dupa cursor: doar pe prima pagina, null pe paginile urmatoare
+    private Integer totalPhotos;
+    // cursor opac pentru pagina urmatoare (doar cu ?cursor=); null daca nu mai sunt poze
+    private String nextCursor;
+    private String imageUrlTemplate;
+    private String thumbnailUrlTemplate;
+    private String variantUrlTemplate;
+    private List<Integer> variantWidths;
+    // numele campurilor din fiecare tuplu al listei photos
+    private List<String> photoFields;
+    private List<Object[]> photos;
+}
@@ -0,0 +1,20 @@
+package com.PJ.Project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DriveCoalescingStatsDto {
+    // descarcari in curs acum
+    private int inFlight;
+    // descarcari efectiv pornite catre Google Drive
+    private long fetches;
+    // cereri care au asteptat o descarcare deja in curs in loc sa porneasca alta
+    private long coalesced;
+    private long failures;
+}
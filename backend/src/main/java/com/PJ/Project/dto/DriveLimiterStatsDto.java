@@ -0,0 +1,20 @@
+package com.PJ.Project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DriveLimiterStatsDto {
+    private double ratePerSecond;
+    private double concurrencyLimit;
+    private int maxConcurrency;
+    private int inFlight;
+    private int queued;
+    private long throttledTotal;
+    private long retriesTotal;
+}
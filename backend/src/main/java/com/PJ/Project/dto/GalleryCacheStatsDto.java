@@ -0,0 +1,20 @@
+package com.PJ.Project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GalleryCacheStatsDto {
+    private int entries;
+    private long weight;
+    private long maxWeight;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+}
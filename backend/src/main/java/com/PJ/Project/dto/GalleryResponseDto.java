@@ -18,6 +18,9 @@ public class GalleryResponseDto {
     private String name;
     private String description;
     private List<PhotoDto> photos;
-    private int totalPhotos;
+    // cu paginare dupa cursor: doar pe prima pagina, null pe paginile urmatoare
+    private Integer totalPhotos;
+    // cursor opac pentru pagina urmatoare (paginare cu ?cursor=); null daca nu mai sunt poze
+    private String nextCursor;
 }
 
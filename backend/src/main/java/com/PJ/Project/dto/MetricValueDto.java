@@ -0,0 +1,18 @@
+package com.PJ.Project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MetricValueDto {
+    private String name;
+    private Map<String, String> tags;
+    private long value;
+}
@@ -0,0 +1,18 @@
+package com.PJ.Project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MetricsDto {
+    private List<TimerStatsDto> timers;
+    private List<MetricValueDto> counters;
+    private List<MetricValueDto> gauges;
+}
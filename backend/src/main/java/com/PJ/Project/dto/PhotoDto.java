@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 
 @Data
 @Builder
@@ -16,8 +17,13 @@ public class PhotoDto {
     private String filename;
     private String url;
     private String thumbnailUrl;
+    // latime -> URL al variantei redimensionate, pentru srcset
+    private Map<Integer, String> variants;
     private Long weddingId;
     private String fileId;
+    // dimensiunile in pixeli (pentru layout fara a astepta incarcarea imaginii); null daca nu se cunosc
+    private Integer width;
+    private Integer height;
     private LocalDateTime createdAt;
 }
 
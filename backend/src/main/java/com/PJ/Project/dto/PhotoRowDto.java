@@ -0,0 +1,11 @@
+package com.PJ.Project.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Coloanele unei poze necesare galeriei publice, selectate direct din query (constructor expression),
+ * fara a incarca entitatea Photo in persistence context
+ */
+public record PhotoRowDto(Long id, String filename, String url, String thumbnailUrl,
+                          String fileId, Integer width, Integer height, LocalDateTime createdAt) {
+}
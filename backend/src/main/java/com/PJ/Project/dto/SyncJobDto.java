@@ -0,0 +1,26 @@
+package com.PJ.Project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncJobDto {
+    private String id;
+    private Long weddingId;
+    private String weddingCode;
+    private SyncJobStatus status;
+    private int foldersScanned;
+    private int filesFound;
+    private int rowsWritten;
+    private SyncResultDto result;
+    private String error;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
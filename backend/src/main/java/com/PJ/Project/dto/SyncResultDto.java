@@ -0,0 +1,25 @@
+package com.PJ.Project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncResultDto {
+    private int added;
+    private int updated;
+    private int removed;
+    private int unchanged;
+
+    public int getTotal() {
+        return added + updated + unchanged;
+    }
+
+    public boolean hasChanges() {
+        return added > 0 || updated > 0 || removed > 0;
+    }
+}
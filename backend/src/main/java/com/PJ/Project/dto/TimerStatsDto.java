@@ -0,0 +1,27 @@
+package com.PJ.Project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimerStatsDto {
+    private String name;
+    private Map<String, String> tags;
+    private long count;
+    private double totalMs;
+    private double meanMs;
+    private double maxMs;
+    // percentilele sunt estimate din histograma
+    private double p50Ms;
+    private double p95Ms;
+    private double p99Ms;
+    // limita superioara (ms) -> numarul cumulat de masuratori
+    private Map<String, Long> bucketsMs;
+}
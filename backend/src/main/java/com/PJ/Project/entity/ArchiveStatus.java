@@ -0,0 +1,8 @@
+package com.PJ.Project.entity;
+
+public enum ArchiveStatus {
+    BUILDING,
+    READY,
+    STALE,
+    FAILED
+}
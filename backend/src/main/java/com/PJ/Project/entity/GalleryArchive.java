@@ -0,0 +1,44 @@
+package com.PJ.Project.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "gallery_archives")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GalleryArchive extends BaseEntity {
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "wedding_id", nullable = false, unique = true)
+    private Wedding wedding;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private ArchiveStatus status;
+
+    @Column(name = "file_path", length = 500)
+    private String filePath;
+
+    @Column(name = "size_bytes")
+    private Long sizeBytes;
+
+    // SHA-256 al arhivei, folosit si ca ETag pentru reluarea descarcarii
+    @Column(name = "checksum", length = 64)
+    private String checksum;
+
+    // hash-ul setului de poze (fileId + md5) din care a fost construita arhiva
+    @Column(name = "photo_set_hash", length = 64)
+    private String photoSetHash;
+
+    @Column(name = "photo_count")
+    private Integer photoCount;
+
+    @Column(name = "built_at")
+    private LocalDateTime builtAt;
+}
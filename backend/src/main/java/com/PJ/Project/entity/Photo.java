@@ -3,8 +3,15 @@ package com.PJ.Project.entity;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.LocalDateTime;
+
 @Entity
-@Table(name = "photos")
+@Table(name = "photos", indexes = {
+        @Index(name = "idx_photos_wedding", columnList = "wedding_id"),
+        @Index(name = "idx_photos_wedding_file", columnList = "wedding_id, file_id"),
+        // endpoint-urile de imagini cauta poza doar dupa file_id
+        @Index(name = "idx_photos_file", columnList = "file_id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -27,5 +34,28 @@ public class Photo extends BaseEntity {
 
     @Column(name = "file_id", length = 255)
     private String fileId;
+
+    // checksum-ul MD5 raportat de Google Drive la sincronizare
+    @Column(name = "md5_checksum", length = 32)
+    private String md5Checksum;
+
+    // ultima modificare a fisierului in Google Drive (UTC)
+    @Column(name = "modified_time")
+    private LocalDateTime modifiedTime;
+
+    // tipul MIME raportat de Google Drive (ex: image/jpeg)
+    @Column(name = "mime_type", length = 100)
+    private String mimeType;
+
+    // dimensiunea originalului in bytes
+    @Column(name = "file_size")
+    private Long fileSize;
+
+    // dimensiunile imaginii in pixeli (imageMediaMetadata), daca Drive le cunoaste
+    @Column(name = "width")
+    private Integer width;
+
+    @Column(name = "height")
+    private Integer height;
 }
 
@@ -3,6 +3,7 @@ package com.PJ.Project.entity;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -31,6 +32,10 @@ public class Wedding extends BaseEntity {
     @Column(name = "description", columnDefinition = "TEXT")
     private String description;
 
+    // momentul ultimei sincronizari care a modificat galeria, folosit pentru ETag-ul galeriei
+    @Column(name = "last_synced_at")
+    private LocalDateTime lastSyncedAt;
+
     @OneToMany(mappedBy = "wedding", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
     private List<Photo> photos = new ArrayList<>();
@@ -0,0 +1,11 @@
+package com.PJ.Project.event;
+
+/**
+ * Publicat cand setul de poze al unui eveniment se schimba (sincronizare sau stergere).
+ * Ascultatorii reactioneaza dupa commit-ul tranzactiei.
+ * @param weddingId ID-ul evenimentului
+ * @param code Codul galeriei
+ * @param deleted true daca evenimentul a fost sters
+ */
+public record GalleryChangedEvent(Long weddingId, String code, boolean deleted) {
+}
@@ -0,0 +1,20 @@
+package com.PJ.Project.exception;
+
+import java.io.IOException;
+
+/**
+ * Google Drive a refuzat cererea din cauza cotei (429 / 403 rateLimitExceeded) si dupa reincercari
+ */
+public class DriveQuotaExceededException extends IOException {
+
+    private final long retryAfterSeconds;
+
+    public DriveQuotaExceededException(String message, long retryAfterSeconds, Throwable cause) {
+        super(message, cause);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
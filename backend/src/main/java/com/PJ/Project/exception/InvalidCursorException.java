@@ -0,0 +1,7 @@
+package com.PJ.Project.exception;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String cursor) {
+        super(String.format("Invalid pagination cursor : '%s'", cursor));
+    }
+}
@@ -0,0 +1,16 @@
+package com.PJ.Project.repository;
+
+import com.PJ.Project.entity.GalleryArchive;
+import com.PJ.Project.entity.Wedding;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface GalleryArchiveRepository extends JpaRepository<GalleryArchive, Long> {
+    @Transactional(readOnly = true)
+    Optional<GalleryArchive> findByWedding(Wedding wedding);
+    void deleteByWedding(Wedding wedding);
+}
@@ -0,0 +1,19 @@
+package com.PJ.Project.repository;
+
+import com.PJ.Project.entity.Photo;
+
+import java.util.List;
+
+/**
+ * Scrieri in masa pentru poze, in afara mecanismului de insert al Hibernate
+ */
+public interface PhotoBatchRepository {
+
+    /**
+     * Insereaza pozele noi cu un singur batch JDBC, in tranzactia curenta. Cu id-uri IDENTITY
+     * Hibernate trimite cate un INSERT separat pentru fiecare entitate; aici se trimit toate odata.
+     * Entitatile nu devin gestionate si nu primesc id.
+     * @param photos Pozele noi (fara id)
+     */
+    void insertAll(List<Photo> photos);
+}
@@ -0,0 +1,45 @@
+package com.PJ.Project.repository;
+
+import com.PJ.Project.entity.Photo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class PhotoBatchRepositoryImpl implements PhotoBatchRepository {
+
+    private static final String INSERT_SQL = "insert into photos (created_at, updated_at, filename, url, thumbnail_url, "
+            + "wedding_id, file_id, md5_checksum, modified_time, mime_type, file_size, width, height) "
+            + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertAll(List<Photo> photos) {
+        if (photos.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, photos, photos.size(), (statement, photo) -> {
+            Timestamp createdAt = photo.getCreatedAt() != null ? Timestamp.valueOf(photo.getCreatedAt()) : now;
+            statement.setTimestamp(1, createdAt);
+            statement.setTimestamp(2, createdAt);
+            statement.setString(3, photo.getFilename());
+            statement.setString(4, photo.getUrl());
+            statement.setString(5, photo.getThumbnailUrl());
+            statement.setLong(6, photo.getWedding().getId());
+            statement.setString(7, photo.getFileId());
+            statement.setString(8, photo.getMd5Checksum());
+            statement.setObject(9, photo.getModifiedTime() != null ? Timestamp.valueOf(photo.getModifiedTime()) : null,
+                    Types.TIMESTAMP);
+            statement.setString(10, photo.getMimeType());
+            statement.setObject(11, photo.getFileSize(), Types.BIGINT);
+            statement.setObject(12, photo.getWidth(), Types.INTEGER);
+            statement.setObject(13, photo.getHeight(), Types.INTEGER);
+        });
+    }
+}
@@ -1,19 +1,59 @@
 package com.PJ.Project.repository;
 
+import com.PJ.Project.dto.PhotoRowDto;
 import com.PJ.Project.entity.Photo;
 import com.PJ.Project.entity.Wedding;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+// metodele de citire sunt read-only: in afara unei tranzactii merg pe pool-ul de citire SQLite,
+// nu asteapta dupa conexiunea de scriere ocupata de o sincronizare (vezi SqliteDataSourceConfig)
 @Repository
-public interface PhotoRepository extends JpaRepository<Photo, Long> {
+public interface PhotoRepository extends JpaRepository<Photo, Long>, PhotoBatchRepository {
+    @Transactional(readOnly = true)
     List<Photo> findByWedding(Wedding wedding);
+    @Transactional(readOnly = true)
     Page<Photo> findByWedding(Wedding wedding, Pageable pageable);
+
+    // citire pentru galeria publica: randuri proiectate direct in DTO, fara entitati gestionate
+    String PHOTO_ROW_SELECT = "select new com.PJ.Project.dto.PhotoRowDto(p.id, p.filename, p.url, p.thumbnailUrl, "
+            + "p.fileId, p.width, p.height, p.createdAt) from Photo p ";
+
+    @Transactional(readOnly = true)
+    @Query(PHOTO_ROW_SELECT + "where p.wedding.id = :weddingId order by p.id")
+    List<PhotoRowDto> findRowsByWeddingId(@Param("weddingId") Long weddingId);
+
+    @Transactional(readOnly = true)
+    @Query(value = PHOTO_ROW_SELECT + "where p.wedding.id = :weddingId order by p.id",
+            countQuery = "select count(p) from Photo p where p.wedding.id = :weddingId")
+    Page<PhotoRowDto> findRowsByWeddingId(@Param("weddingId") Long weddingId, Pageable pageable);
+
+    // paginare keyset: ordonat dupa id, fara OFFSET
+    @Transactional(readOnly = true)
+    @Query(PHOTO_ROW_SELECT + "where p.wedding.id = :weddingId and p.id > :afterId order by p.id")
+    List<PhotoRowDto> findRowsByWeddingIdAfter(@Param("weddingId") Long weddingId,
+                                               @Param("afterId") Long afterId, Limit limit);
+
+    @Transactional(readOnly = true)
+    @Query("select count(p) from Photo p where p.wedding.id = :weddingId")
+    long countByWeddingId(@Param("weddingId") Long weddingId);
+
     void deleteByWedding(Wedding wedding);
+    @Transactional(readOnly = true)
     long countByWedding(Wedding wedding);
+    @Transactional(readOnly = true)
+    List<Photo> findByFileIdIn(Collection<String> fileIds);
+    @Transactional(readOnly = true)
+    Optional<Photo> findFirstByFileId(String fileId);
 }
 
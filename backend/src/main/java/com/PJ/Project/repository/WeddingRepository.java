@@ -1,14 +1,28 @@
 package com.PJ.Project.repository;
 
+import com.PJ.Project.dto.WeddingSummaryDto;
 import com.PJ.Project.entity.Wedding;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
+// metodele de citire sunt read-only, pe pool-ul de citire SQLite (vezi SqliteDataSourceConfig)
 @Repository
 public interface WeddingRepository extends JpaRepository<Wedding, Long> {
+    @Transactional(readOnly = true)
     Optional<Wedding> findByCode(String code);
+    @Transactional(readOnly = true)
     boolean existsByCode(String code);
+
+    // sumarul pentru dashboard cu numarul de poze al fiecarui eveniment, intr-un singur query
+    @Transactional(readOnly = true)
+    @Query("select new com.PJ.Project.dto.WeddingSummaryDto(w.id, w.code, w.eventType, w.name, w.description, count(p)) "
+            + "from Wedding w left join w.photos p "
+            + "group by w.id, w.code, w.eventType, w.name, w.description order by w.id")
+    List<WeddingSummaryDto> findAllSummaries();
 }
 
@@ -0,0 +1,142 @@
+package com.PJ.Project.service;
+
+import com.PJ.Project.dto.BulkheadStatsDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulkhead-uri separate pentru clasele de endpoint-uri proxy (thumbnail-uri, imagini, arhive ZIP),
+ * ca descarcarile mari sa nu ocupe toata capacitatea serverului in dauna navigarii in galerie.
+ * Fiecare bulkhead are un numar limitat de cereri active si o coada limitata; o cerere care nu
+ * incape in coada sau nu primeste loc in timpul maxim de asteptare este refuzata imediat
+ * (503 cu Retry-After, vezi BulkheadInterceptor).
+ */
+@Service
+@Slf4j
+public class BulkheadService {
+
+    public static final String THUMBNAILS = "thumbnails";
+    public static final String IMAGES = "images";
+    public static final String ARCHIVES = "archives";
+
+    private final Map<String, Compartment> compartments = new LinkedHashMap<>();
+    private final long maxWaitMs;
+    private final long retryAfterSeconds;
+
+    public BulkheadService(@Value("${fotoit.bulkhead.thumbnails.max-concurrent:64}") int thumbnailsConcurrent,
+                           @Value("${fotoit.bulkhead.thumbnails.max-queued:256}") int thumbnailsQueued,
+                           @Value("${fotoit.bulkhead.images.max-concurrent:32}") int imagesConcurrent,
+                           @Value("${fotoit.bulkhead.images.max-queued:64}") int imagesQueued,
+                           @Value("${fotoit.bulkhead.archives.max-concurrent:4}") int archivesConcurrent,
+                           @Value("${fotoit.bulkhead.archives.max-queued:8}") int archivesQueued,
+                           @Value("${fotoit.bulkhead.max-wait-ms:2000}") long maxWaitMs,
+                           @Value("${fotoit.bulkhead.retry-after-seconds:5}") long retryAfterSeconds) {
+        compartments.put(THUMBNAILS, new Compartment(THUMBNAILS, thumbnailsConcurrent, thumbnailsQueued));
+        compartments.put(IMAGES, new Compartment(IMAGES, imagesConcurrent, imagesQueued));
+        compartments.put(ARCHIVES, new Compartment(ARCHIVES, archivesConcurrent, archivesQueued));
+        this.maxWaitMs = Math.max(0, maxWaitMs);
+        this.retryAfterSeconds = Math.max(1, retryAfterSeconds);
+    }
+
+    /**
+     * Ocupa un loc in bulkhead, asteptand cel mult max-wait-ms daca toate locurile sunt ocupate
+     * @param name Numele bulkhead-ului
+     * @return true daca locul a fost ocupat (si trebuie eliberat cu release), false daca cererea este refuzata
+     */
+    public boolean tryAcquire(String name) {
+        Compartment compartment = compartment(name);
+        try {
+            // tryAcquire cu timeout respecta ordinea cererilor deja in coada
+            if (compartment.permits.tryAcquire(0, TimeUnit.MILLISECONDS)) {
+                compartment.accepted.incrementAndGet();
+                return true;
+            }
+            if (compartment.queued.incrementAndGet() > compartment.maxQueued) {
+                compartment.queued.decrementAndGet();
+                return reject(compartment);
+            }
+            try {
+                if (!compartment.permits.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS)) {
+                    return reject(compartment);
+                }
+            } finally {
+                compartment.queued.decrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return reject(compartment);
+        }
+        compartment.accepted.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Elibereaza locul ocupat cu acquire
+     * @param name Numele bulkhead-ului
+     */
+    public void release(String name) {
+        compartment(name).permits.release();
+    }
+
+    public List<BulkheadStatsDto> getStats() {
+        return compartments.values().stream()
+                .map(compartment -> BulkheadStatsDto.builder()
+                        .name(compartment.name)
+                        .maxConcurrent(compartment.maxConcurrent)
+                        .maxQueued(compartment.maxQueued)
+                        .active(compartment.maxConcurrent - compartment.permits.availablePermits())
+                        .queued(compartment.queued.get())
+                        .accepted(compartment.accepted.get())
+                        .rejected(compartment.rejected.get())
+                        .build())
+                .toList();
+    }
+
+    private Compartment compartment(String name) {
+        Compartment compartment = compartments.get(name);
+        if (compartment == null) {
+            throw new IllegalArgumentException("Bulkhead necunoscut: " + name);
+        }
+        return compartment;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    private boolean reject(Compartment compartment) {
+        long rejected = compartment.rejected.incrementAndGet();
+        // un singur mesaj la fiecare 100 de refuzuri, ca log-ul sa nu creasca odata cu incarcarea
+        if (rejected % 100 == 1) {
+            log.warn("Bulkhead {} plin: {} cereri refuzate pana acum", compartment.name, rejected);
+        }
+        return false;
+    }
+
+    private static final class Compartment {
+
+        private final String name;
+        private final int maxConcurrent;
+        private final int maxQueued;
+        private final Semaphore permits;
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicLong accepted = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+
+        Compartment(String name, int maxConcurrent, int maxQueued) {
+            this.name = name;
+            this.maxConcurrent = Math.max(1, maxConcurrent);
+            this.maxQueued = Math.max(0, maxQueued);
+            this.permits = new Semaphore(this.maxConcurrent, true);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.PJ.Project.service;
+
+import com.PJ.Project.dto.DriveCoalescingStatsDto;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-flight pentru descarcarile din Google Drive: cererile simultane pentru acelasi fisier
+ * asteapta o singura descarcare in curs si primesc toate rezultatul ei (sau aceeasi eroare).
+ * Descarcarea ruleaza pe un fir virtual propriu, nu pe firul primei cereri: daca o cerere este
+ * intrerupta sau renunta, descarcarea continua pentru celelalte. Fiecare cerere asteapta cel mult
+ * fotoit.drive.fetch-timeout-seconds; dupa terminare cheia este eliberata, asa ca urmatoarea cerere
+ * porneste o descarcare noua (sau o gaseste in cache).
+ */
+@Service
+@Slf4j
+public class DriveFetchCoalescer {
+
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final long timeoutSeconds;
+
+    private final AtomicLong fetches = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    public DriveFetchCoalescer(@Value("${fotoit.drive.fetch-timeout-seconds:120}") long timeoutSeconds) {
+        this.timeoutSeconds = Math.max(1, timeoutSeconds);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Executa descarcarea pentru cheie, sau asteapta descarcarea deja in curs pentru aceeasi cheie
+     * @param key Cheia descarcarii (ex: tipul rezultatului si ID-ul fisierului)
+     * @param fetch Descarcarea propriu-zisa, pornita doar de prima cerere
+     * @return Rezultatul descarcarii, comun tuturor cererilor care au asteptat-o
+     * @throws IOException eroarea descarcarii, transmisa tuturor cererilor care au asteptat-o,
+     *                     sau expirarea timpului de asteptare
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T fetch(String key, Fetch<T> fetch) throws IOException {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            coalesced.incrementAndGet();
+            return (T) await(key, existing);
+        }
+
+        start(key, mine, fetch);
+        return (T) await(key, mine);
+    }
+
+    /**
+     * Porneste descarcarea pentru cheie in fundal, fara sa astepte rezultatul;
+     * nu face nimic daca o descarcare pentru aceeasi cheie este deja in curs
+     * @param key Cheia descarcarii
+     * @param fetch Descarcarea propriu-zisa
+     */
+    public void fetchInBackground(String key, Fetch<?> fetch) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(key, mine) != null) {
+            coalesced.incrementAndGet();
+            return;
+        }
+        mine.whenComplete((result, error) -> {
+            if (error != null) {
+                log.warn("Descarcarea in fundal {} a esuat: {}", key, error.getMessage());
+            }
+        });
+        start(key, mine, fetch);
+    }
+
+    private void start(String key, CompletableFuture<Object> future, Fetch<?> fetch) {
+        fetches.incrementAndGet();
+        try {
+            executor.execute(() -> run(key, future, fetch));
+        } catch (RejectedExecutionException e) {
+            // aplicatia se opreste
+            inFlight.remove(key, future);
+            future.completeExceptionally(new IOException("Descarcarea " + key + " nu a putut fi pornita", e));
+        }
+    }
+
+    private void run(String key, CompletableFuture<Object> future, Fetch<?> fetch) {
+        try {
+            future.complete(fetch.execute());
+        } catch (IOException | RuntimeException | Error e) {
+            failures.incrementAndGet();
+            future.completeExceptionally(e);
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    public DriveCoalescingStatsDto getStats() {
+        return DriveCoalescingStatsDto.builder()
+                .inFlight(inFlight.size())
+                .fetches(fetches.get())
+                .coalesced(coalesced.get())
+                .failures(failures.get())
+                .build();
+    }
+
+    // intreruperea sau expirarea afecteaza doar cererea care asteapta, nu si descarcarea
+    private Object await(String key, CompletableFuture<Object> future) throws IOException {
+        try {
+            return future.get(timeoutSeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Asteptarea descarcarii " + key + " a fost intrerupta");
+        } catch (TimeoutException e) {
+            throw new IOException("Descarcarea " + key + " nu s-a terminat in " + timeoutSeconds + " s");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IOException("Descarcarea " + key + " a esuat", cause);
+        }
+    }
+
+    /**
+     * O descarcare din Google Drive
+     */
+    @FunctionalInterface
+    public interface Fetch<T> {
+        T execute() throws IOException;
+    }
+}
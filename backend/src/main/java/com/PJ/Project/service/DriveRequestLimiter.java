@@ -0,0 +1,280 @@
+package com.PJ.Project.service;
+
+import com.PJ.Project.dto.DriveLimiterStatsDto;
+import com.PJ.Project.exception.DriveQuotaExceededException;
+import com.google.api.client.http.HttpResponseException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limiteaza cererile catre Google Drive ca sa ramanem in cota: un token bucket pentru cereri pe secunda
+ * si o limita de concurenta adaptiva (AIMD) - creste cu 1/limita la fiecare cerere reusita si se
+ * injumatateste la o eroare de cota, o singura data pe fereastra de congestie (erorile cererilor pornite
+ * inainte de ultima reducere nu o mai reduc). Erorile de cota si erorile temporare 5xx sunt reincercate
+ * cu backoff exponential cu jitter; daca cota ramane depasita se arunca DriveQuotaExceededException.
+ */
+@Service
+@Slf4j
+public class DriveRequestLimiter {
+
+    private static final double MIN_CONCURRENCY = 1.0;
+
+    private final double ratePerSecond;
+    private final double burst;
+    private final int maxConcurrency;
+    private final int maxRetries;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+
+    // token bucket
+    private final Object bucketLock = new Object();
+    private double tokens;
+    private long lastRefillNanos = System.nanoTime();
+
+    // limita de concurenta AIMD
+    private final ReentrantLock slotLock = new ReentrantLock();
+    private final Condition slotAvailable = slotLock.newCondition();
+    private double concurrencyLimit;
+    private int inFlight;
+    // creste la fiecare reducere a limitei; cererile retin valoarea de la admitere
+    private long decreaseEpoch;
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong throttledTotal = new AtomicLong();
+    private final AtomicLong retriesTotal = new AtomicLong();
+
+    private final MetricsService metricsService;
+
+    public DriveRequestLimiter(MetricsService metricsService,
+                               @Value("${fotoit.drive.rate-per-second:20}") double ratePerSecond,
+                               @Value("${fotoit.drive.burst:20}") int burst,
+                               @Value("${fotoit.drive.max-concurrency:16}") int maxConcurrency,
+                               @Value("${fotoit.drive.max-retries:5}") int maxRetries,
+                               @Value("${fotoit.drive.initial-backoff-ms:500}") long initialBackoffMs,
+                               @Value("${fotoit.drive.max-backoff-ms:16000}") long maxBackoffMs) {
+        this.ratePerSecond = Math.max(0.1, ratePerSecond);
+        this.burst = Math.max(1, burst);
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.maxRetries = Math.max(0, maxRetries);
+        this.initialBackoffMs = Math.max(1, initialBackoffMs);
+        this.maxBackoffMs = Math.max(this.initialBackoffMs, maxBackoffMs);
+        this.metricsService = metricsService;
+        this.tokens = this.burst;
+        this.concurrencyLimit = this.maxConcurrency;
+    }
+
+    /**
+     * Executa o cerere catre Drive respectand limitele, cu reincercari la erorile de cota si 5xx
+     * @param operation Numele operatiei (pentru log-uri)
+     * @param call Cererea catre Drive
+     * @return Rezultatul cererii
+     * @throws DriveQuotaExceededException daca cota ramane depasita dupa toate reincercarile
+     * @throws IOException daca cererea esueaza din alt motiv
+     */
+    public <T> T execute(String operation, DriveCall<T> call) throws IOException {
+        return execute(operation, 1, call);
+    }
+
+    /**
+     * La fel ca execute(operation, call), pentru cereri care consuma mai multe unitati de cota (batch)
+     * @param cost Numarul de cereri Drive continute (ex: dimensiunea batch-ului)
+     */
+    public <T> T execute(String operation, int cost, DriveCall<T> call) throws IOException {
+        for (int attempt = 0; ; attempt++) {
+            long waitStart = System.nanoTime();
+            long admittedEpoch = acquire(cost);
+            metricsService.timer("drive.limiter.wait", "operation", operation).recordSince(waitStart);
+            boolean succeeded = false;
+            boolean throttled = false;
+            IOException failure;
+            // pentru descarcari, durata pana la primirea raspunsului (continutul este citit ulterior)
+            long callStart = System.nanoTime();
+            try {
+                T result = call.execute();
+                succeeded = true;
+                return result;
+            } catch (IOException e) {
+                throttled = isQuotaError(e);
+                if (!throttled && !isTransientError(e)) {
+                    throw e;
+                }
+                failure = e;
+            } finally {
+                metricsService.timer("drive.request", "operation", operation).recordSince(callStart);
+                release(succeeded, throttled, admittedEpoch);
+            }
+
+            if (attempt >= maxRetries) {
+                if (throttled) {
+                    throw new DriveQuotaExceededException("Cota Google Drive depasita pentru " + operation,
+                            Math.max(1, (maxBackoffMs + 999) / 1000), failure);
+                }
+                throw failure;
+            }
+
+            long delay = backoffMillis(attempt);
+            retriesTotal.incrementAndGet();
+            log.debug("Reincercare {} pentru {} peste {} ms ({})", attempt + 1, operation, delay, failure.getMessage());
+            sleep(delay);
+        }
+    }
+
+    public DriveLimiterStatsDto getStats() {
+        slotLock.lock();
+        try {
+            return DriveLimiterStatsDto.builder()
+                    .ratePerSecond(ratePerSecond)
+                    .concurrencyLimit(concurrencyLimit)
+                    .maxConcurrency(maxConcurrency)
+                    .inFlight(inFlight)
+                    .queued(queued.get())
+                    .throttledTotal(throttledTotal.get())
+                    .retriesTotal(retriesTotal.get())
+                    .build();
+        } finally {
+            slotLock.unlock();
+        }
+    }
+
+    // returneaza epoca reducerilor de la admiterea cererii
+    private long acquire(int cost) throws InterruptedIOException {
+        queued.incrementAndGet();
+        try {
+            acquireTokens(Math.min(cost, burst));
+            return acquireSlot();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Asteptarea pentru cota Google Drive a fost intrerupta");
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    private void acquireTokens(double cost) throws InterruptedException {
+        while (true) {
+            long waitNanos;
+            synchronized (bucketLock) {
+                long now = System.nanoTime();
+                tokens = Math.min(burst, tokens + (now - lastRefillNanos) * ratePerSecond / 1e9);
+                lastRefillNanos = now;
+                if (tokens >= cost) {
+                    tokens -= cost;
+                    return;
+                }
+                waitNanos = (long) ((cost - tokens) * 1e9 / ratePerSecond);
+            }
+            TimeUnit.NANOSECONDS.sleep(Math.max(waitNanos, TimeUnit.MILLISECONDS.toNanos(1)));
+        }
+    }
+
+    private long acquireSlot() throws InterruptedException {
+        slotLock.lock();
+        try {
+            while (inFlight >= (int) concurrencyLimit) {
+                slotAvailable.await();
+            }
+            inFlight++;
+            return decreaseEpoch;
+        } finally {
+            slotLock.unlock();
+        }
+    }
+
+    private void release(boolean succeeded, boolean throttled, long admittedEpoch) {
+        slotLock.lock();
+        try {
+            inFlight--;
+            if (throttled) {
+                throttledTotal.incrementAndGet();
+                // o cerere pornita inainte de ultima reducere apartine aceleiasi congestii: fara o noua reducere
+                if (admittedEpoch == decreaseEpoch) {
+                    decreaseEpoch++;
+                    double previous = concurrencyLimit;
+                    concurrencyLimit = Math.max(MIN_CONCURRENCY, concurrencyLimit / 2);
+                    if ((int) previous != (int) concurrencyLimit) {
+                        log.warn("Cota Google Drive atinsa - concurenta redusa la {}", (int) concurrencyLimit);
+                    }
+                }
+            } else if (succeeded) {
+                concurrencyLimit = Math.min(maxConcurrency, concurrencyLimit + 1.0 / concurrencyLimit);
+            }
+            slotAvailable.signalAll();
+        } finally {
+            slotLock.unlock();
+        }
+    }
+
+    // backoff exponential cu jitter: aleator intre jumatate si min(max, initial * 2^attempt)
+    private long backoffMillis(int attempt) {
+        long ceiling = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1);
+    }
+
+    private static void sleep(long millis) throws InterruptedIOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Reincercarea cererii Google Drive a fost intrerupta");
+        }
+    }
+
+    /**
+     * 429 sau 403 cu motivul userRateLimitExceeded / rateLimitExceeded
+     */
+    public static boolean isQuotaError(IOException e) {
+        if (e instanceof ThrottledException) {
+            return true;
+        }
+        if (!(e instanceof HttpResponseException response)) {
+            return false;
+        }
+        if (response.getStatusCode() == 429) {
+            return true;
+        }
+        return response.getStatusCode() == 403 && isQuotaReason(response.getContent());
+    }
+
+    /**
+     * Motivul unei erori Drive (ex: din GoogleJsonError) indica depasirea cotei
+     */
+    public static boolean isQuotaReason(String reason) {
+        return reason != null && (reason.contains("userRateLimitExceeded") || reason.contains("rateLimitExceeded"));
+    }
+
+    private static boolean isTransientError(IOException e) {
+        if (e instanceof HttpResponseException response) {
+            int status = response.getStatusCode();
+            return status == 500 || status == 502 || status == 503 || status == 504;
+        }
+        return false;
+    }
+
+    /**
+     * O cerere catre Google Drive
+     */
+    @FunctionalInterface
+    public interface DriveCall<T> {
+        T execute() throws IOException;
+    }
+
+    /**
+     * Aruncata de o cerere care a primit (partial) raspuns de depasire a cotei, de exemplu cand unele
+     * cereri dintr-un batch au fost refuzate; cererea este reincercata cu backoff
+     */
+    public static class ThrottledException extends IOException {
+        public ThrottledException(String message) {
+            super(message);
+        }
+    }
+}
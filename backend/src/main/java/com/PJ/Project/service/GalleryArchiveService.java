@@ -0,0 +1,366 @@
+package com.PJ.Project.service;
+
+import com.PJ.Project.entity.ArchiveStatus;
+import com.PJ.Project.entity.GalleryArchive;
+import com.PJ.Project.entity.Photo;
+import com.PJ.Project.entity.Wedding;
+import com.PJ.Project.event.GalleryChangedEvent;
+import com.PJ.Project.repository.GalleryArchiveRepository;
+import com.PJ.Project.repository.PhotoRepository;
+import com.PJ.Project.repository.WeddingRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Arhive ZIP pre-construite cu toate pozele unui eveniment, generate in fundal dupa sincronizare.
+ * Arhiva este stocata pe disc impreuna cu checksum-ul si dimensiunea ei si devine STALE
+ * cand setul de poze se schimba; descarcarea "tot" o serveste direct de pe disc.
+ * O arhiva careia ii lipsesc poze (descarcari esuate) nu este marcata READY: ramane FAILED
+ * si este reconstruita cu backoff exponential, de cel mult fotoit.archive.max-retries ori.
+ */
+@Service
+@Slf4j
+public class GalleryArchiveService {
+
+    private final GalleryArchiveRepository archiveRepository;
+    private final WeddingRepository weddingRepository;
+    private final PhotoRepository photoRepository;
+    private final ZipArchiveService zipArchiveService;
+    private final ImageProxyService imageProxyService;
+    private final MetricsService metricsService;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean buildOnSync;
+    private final Path archiveDir;
+    private final int maxRetries;
+    private final long retryInitialSeconds;
+    private final long retryMaxSeconds;
+
+    // arhivele se construiesc pe rand, pe un singur thread, ca sa nu concureze cu traficul galeriilor;
+    // acelasi thread programeaza si reincercarile
+    private final ScheduledExecutorService builder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "archive-builder");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+    // evenimente marcate STALE in tranzactia curenta, de reconstruit dupa commit
+    private final Set<Long> pendingBuilds = ConcurrentHashMap.newKeySet();
+    // reincercarile consecutive ale arhivelor incomplete, pe eveniment
+    private final Map<Long, Integer> retryAttempts = new ConcurrentHashMap<>();
+
+    public GalleryArchiveService(GalleryArchiveRepository archiveRepository,
+                                 WeddingRepository weddingRepository,
+                                 PhotoRepository photoRepository,
+                                 ZipArchiveService zipArchiveService,
+                                 ImageProxyService imageProxyService,
+                                 MetricsService metricsService,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${fotoit.archive.build-on-sync:true}") boolean buildOnSync,
+                                 @Value("${fotoit.archive.dir:cache/archives}") String archiveDir,
+                                 @Value("${fotoit.archive.max-retries:5}") int maxRetries,
+                                 @Value("${fotoit.archive.retry-initial-seconds:60}") long retryInitialSeconds,
+                                 @Value("${fotoit.archive.retry-max-seconds:3600}") long retryMaxSeconds) {
+        this.archiveRepository = archiveRepository;
+        this.weddingRepository = weddingRepository;
+        this.photoRepository = photoRepository;
+        this.zipArchiveService = zipArchiveService;
+        this.imageProxyService = imageProxyService;
+        this.metricsService = metricsService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.buildOnSync = buildOnSync;
+        this.archiveDir = Paths.get(archiveDir).toAbsolutePath();
+        this.maxRetries = Math.max(0, maxRetries);
+        this.retryInitialSeconds = Math.max(1, retryInitialSeconds);
+        this.retryMaxSeconds = Math.max(this.retryInitialSeconds, retryMaxSeconds);
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(archiveDir);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        builder.shutdownNow();
+    }
+
+    /**
+     * In tranzactia sincronizarii, inainte de commit, marcheaza arhiva ca STALE daca setul de poze
+     * s-a schimbat. Ruleaza pe aceeasi conexiune: o tranzactie noua ar astepta dupa conexiunea de
+     * scriere SQLite, tinuta de sincronizare pana la sfarsitul ei.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void markStale(GalleryChangedEvent event) {
+        if (!event.deleted() && markStaleIfChanged(event.weddingId())) {
+            pendingBuilds.add(event.weddingId());
+        }
+    }
+
+    /**
+     * Dupa commit-ul unei sincronizari programeaza reconstruirea arhivei marcate STALE (daca optiunea
+     * este activa); dupa stergerea evenimentului sterge fisierele arhivei
+     */
+    @TransactionalEventListener
+    public void onGalleryChanged(GalleryChangedEvent event) {
+        if (event.deleted()) {
+            deleteArchiveFiles(event.weddingId(), null);
+            return;
+        }
+
+        if (pendingBuilds.remove(event.weddingId())) {
+            // set de poze nou: reincercarile pentru setul vechi nu mai conteaza
+            retryAttempts.remove(event.weddingId());
+            if (buildOnSync) {
+                scheduleBuild(event.weddingId());
+            }
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+    public void onGalleryChangeRolledBack(GalleryChangedEvent event) {
+        pendingBuilds.remove(event.weddingId());
+    }
+
+    /**
+     * Returneaza arhiva gata de descarcat pentru un eveniment
+     * @param wedding Evenimentul
+     * @return Arhiva READY al carei fisier exista pe disc, sau Optional.empty()
+     */
+    public Optional<GalleryArchive> findReadyArchive(Wedding wedding) {
+        return archiveRepository.findByWedding(wedding)
+                .filter(archive -> archive.getStatus() == ArchiveStatus.READY)
+                .filter(archive -> archive.getFilePath() != null && Files.exists(Paths.get(archive.getFilePath())));
+    }
+
+    /**
+     * Programeaza construirea arhivei unui eveniment (ignorat daca este deja in coada)
+     * @param weddingId ID-ul evenimentului
+     */
+    public void scheduleBuild(Long weddingId) {
+        if (!imageProxyService.isAvailable()) {
+            return;
+        }
+        if (queued.add(weddingId)) {
+            builder.submit(() -> {
+                queued.remove(weddingId);
+                build(weddingId);
+            });
+        }
+    }
+
+    /**
+     * Cerere de descarcare fara arhiva gata: programeaza construirea daca nu este deja in curs
+     * @param wedding Evenimentul
+     */
+    public void requestBuild(Wedding wedding) {
+        boolean building = archiveRepository.findByWedding(wedding)
+                .map(archive -> archive.getStatus() == ArchiveStatus.BUILDING)
+                .orElse(false);
+        if (!building) {
+            scheduleBuild(wedding.getId());
+        }
+    }
+
+    private boolean markStaleIfChanged(Long weddingId) {
+        Optional<Wedding> wedding = weddingRepository.findById(weddingId);
+        if (wedding.isEmpty()) {
+            return false;
+        }
+
+        String photoSetHash = photoSetHash(photoRepository.findByWedding(wedding.get()));
+        GalleryArchive archive = archiveRepository.findByWedding(wedding.get())
+                .orElseGet(() -> GalleryArchive.builder().wedding(wedding.get()).build());
+        if (archive.getStatus() == ArchiveStatus.READY && photoSetHash.equals(archive.getPhotoSetHash())) {
+            return false;
+        }
+
+        archive.setStatus(ArchiveStatus.STALE);
+        archiveRepository.save(archive);
+        log.info("Arhiva evenimentului {} este marcata STALE", weddingId);
+        return true;
+    }
+
+    private void build(Long weddingId) {
+        BuildPlan plan = transactionTemplate.execute(status -> prepareBuild(weddingId));
+        if (plan == null) {
+            return;
+        }
+
+        log.info("Construire arhiva pentru eveniment {} ({} poze)", weddingId, plan.fileIds().size());
+        long start = System.nanoTime();
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(archiveDir, "wedding-" + weddingId + ".", ".tmp");
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            ZipArchiveService.ZipResult result;
+            try (OutputStream out = new DigestOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)), sha256)) {
+                result = zipArchiveService.writeArchive(plan.fileIds(), out);
+            }
+            if (!result.skipped().isEmpty()) {
+                // o arhiva incompleta marcata READY nu ar mai fi reconstruita (setul de poze nu se schimba)
+                log.warn("Arhiva evenimentului {} este incompleta: {} din {} fisiere omise: {}", weddingId,
+                        result.skipped().size(), plan.fileIds().size(), result.skipped());
+                throw new IOException(result.skipped().size() + " fisiere nu au putut fi adaugate in arhiva");
+            }
+            int count = result.written();
+
+            String checksum = HexFormat.of().formatHex(sha256.digest());
+            // fisierul final este imuabil (checksum in nume), descarcarile in curs nu sunt afectate
+            Path target = archiveDir.resolve("wedding-" + weddingId + "-" + checksum.substring(0, 16) + ".zip");
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            long size = Files.size(target);
+
+            Boolean ready = transactionTemplate.execute(status ->
+                    completeBuild(plan, target, checksum, size, count));
+            if (Boolean.TRUE.equals(ready)) {
+                retryAttempts.remove(weddingId);
+                metricsService.timer("archive.build").recordSince(start);
+                deleteArchiveFiles(weddingId, target);
+                log.info("Arhiva evenimentului {} este gata: {} fisiere, {} MB",
+                        weddingId, count, size / (1024 * 1024));
+            } else {
+                // setul de poze s-a schimbat in timpul constructiei - reconstruirea este deja programata
+                Files.deleteIfExists(target);
+            }
+        } catch (IOException | NoSuchAlgorithmException | RuntimeException e) {
+            log.error("Eroare la construirea arhivei pentru eveniment {}", weddingId, e);
+            Boolean failed = transactionTemplate.execute(status -> archiveRepository.findById(plan.archiveId())
+                    .filter(archive -> archive.getStatus() == ArchiveStatus.BUILDING)
+                    .map(archive -> {
+                        archive.setStatus(ArchiveStatus.FAILED);
+                        return true;
+                    })
+                    .orElse(false));
+            // daca intre timp arhiva a fost marcata STALE, reconstruirea este deja programata
+            if (Boolean.TRUE.equals(failed)) {
+                scheduleRetry(weddingId);
+            }
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    log.warn("Nu s-a putut sterge fisierul temporar {}", temp, e);
+                }
+            }
+        }
+    }
+
+    // backoff exponential: retry-initial-seconds, dublat la fiecare incercare, cel mult retry-max-seconds
+    private void scheduleRetry(Long weddingId) {
+        int attempt = retryAttempts.merge(weddingId, 1, Integer::sum);
+        if (attempt > maxRetries) {
+            retryAttempts.remove(weddingId);
+            log.warn("Arhiva evenimentului {} ramane FAILED dupa {} reincercari", weddingId, maxRetries);
+            return;
+        }
+        long delay = Math.min(retryMaxSeconds, retryInitialSeconds << Math.min(attempt - 1, 20));
+        log.info("Reincercarea {} a arhivei evenimentului {} peste {} s", attempt, weddingId, delay);
+        try {
+            builder.schedule(() -> scheduleBuild(weddingId), delay, TimeUnit.SECONDS);
+        } catch (RejectedExecutionException e) {
+            // aplicatia se opreste
+        }
+    }
+
+    private BuildPlan prepareBuild(Long weddingId) {
+        Optional<Wedding> wedding = weddingRepository.findById(weddingId);
+        if (wedding.isEmpty()) {
+            return null;
+        }
+
+        List<Photo> photos = photoRepository.findByWedding(wedding.get());
+        if (photos.isEmpty()) {
+            return null;
+        }
+
+        GalleryArchive archive = archiveRepository.findByWedding(wedding.get())
+                .orElseGet(() -> GalleryArchive.builder().wedding(wedding.get()).build());
+        archive.setStatus(ArchiveStatus.BUILDING);
+        archive = archiveRepository.save(archive);
+
+        List<String> fileIds = photos.stream()
+                .map(Photo::getFileId)
+                .filter(fileId -> fileId != null)
+                .toList();
+        return new BuildPlan(archive.getId(), fileIds, photoSetHash(photos));
+    }
+
+    private boolean completeBuild(BuildPlan plan, Path target, String checksum, long size, int count) {
+        GalleryArchive archive = archiveRepository.findById(plan.archiveId()).orElse(null);
+        if (archive == null || archive.getStatus() != ArchiveStatus.BUILDING) {
+            return false;
+        }
+        archive.setStatus(ArchiveStatus.READY);
+        archive.setFilePath(target.toString());
+        archive.setSizeBytes(size);
+        archive.setChecksum(checksum);
+        archive.setPhotoSetHash(plan.photoSetHash());
+        archive.setPhotoCount(count);
+        archive.setBuiltAt(LocalDateTime.now());
+        return true;
+    }
+
+    // sterge arhivele vechi ale evenimentului (toate, daca keep este null)
+    private void deleteArchiveFiles(Long weddingId, Path keep) {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(archiveDir, "wedding-" + weddingId + "-*.zip")) {
+            for (Path path : stream) {
+                if (!path.equals(keep)) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Nu s-au putut sterge arhivele vechi ale evenimentului {}", weddingId, e);
+        }
+    }
+
+    private static String photoSetHash(List<Photo> photos) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            photos.stream()
+                    .filter(photo -> photo.getFileId() != null)
+                    .map(photo -> photo.getFileId() + ":" + photo.getMd5Checksum())
+                    .sorted()
+                    .forEach(entry -> sha256.update((entry + "\n").getBytes(StandardCharsets.UTF_8)));
+            return HexFormat.of().formatHex(sha256.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponibil", e);
+        }
+    }
+
+    private record BuildPlan(Long archiveId, List<String> fileIds, String photoSetHash) {
+    }
+}
@@ -0,0 +1,297 @@
+package com.PJ.Project.service;
+
+import com.PJ.Project.dto.CompactGalleryDto;
+import com.PJ.Project.dto.GalleryCacheStatsDto;
+import com.PJ.Project.dto.GalleryResponseDto;
+import com.PJ.Project.entity.Wedding;
+import com.PJ.Project.event.GalleryChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.ZoneOffset;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache in memorie pentru raspunsurile GET /api/gallery/{code}, pe cod si pagina (sau cursor).
+ * Raspunsul este pastrat deja serializat (JSON) si comprimat (gzip), asa ca o cerere servita din
+ * cache nu mai costa nici serializare, nici compresie. O galerie se schimba doar la sincronizare
+ * sau stergere, asa ca intrarile sunt invalidate exact la commit-ul acestora (GalleryChangedEvent),
+ * iar dupa sincronizare raspunsul implicit al galeriei este pregatit din nou in fundal. Dimensiunea este limitata
+ * dupa numarul total de poze din intrari, cu evacuare LRU.
+ */
+@Service
+@Slf4j
+public class GalleryCacheService {
+
+    // prima pagina ceruta de frontend la deschiderea galeriei (GET /api/v2/gallery/{code}?cursor=&size=20)
+    private static final String FIRST_PAGE_CURSOR = "";
+    private static final int FIRST_PAGE_SIZE = 20;
+
+    private final WeddingService weddingService;
+    private final ObjectMapper objectMapper;
+    private final MetricsService metricsService;
+    private final long maxWeight;
+
+    // ordinea de acces (LRU); protejat de lock-ul pe entries
+    private final LinkedHashMap<String, GallerySnapshot> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long currentWeight = 0;
+
+    // generatia fiecarei galerii, crescuta la invalidarea ei: o incarcare inceputa inainte de invalidare
+    // nu mai este salvata, iar invalidarea unei galerii nu afecteaza incarcarile celorlalte
+    private final ConcurrentHashMap<String, Long> generations = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    // galeriile se pregatesc pe rand, pe un singur thread, in afara callback-ului de dupa commit
+    private final ExecutorService prewarmer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "gallery-prewarm");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Set<String> prewarmQueued = ConcurrentHashMap.newKeySet();
+
+    public GalleryCacheService(WeddingService weddingService, ObjectMapper objectMapper, MetricsService metricsService,
+                               @Value("${fotoit.gallery-cache.max-photos:50000}") long maxWeight) {
+        this.weddingService = weddingService;
+        this.objectMapper = objectMapper;
+        this.metricsService = metricsService;
+        this.maxWeight = maxWeight;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        prewarmer.shutdownNow();
+    }
+
+    /**
+     * Returneaza galeria din cache sau o incarca din baza de date la prima cerere
+     * @param code Codul galeriei
+     * @param page Pagina ceruta (ignorata cand cursor nu este null)
+     * @param size Dimensiunea paginii
+     * @param cursor Cursorul paginarii keyset; null pentru paginarea dupa numarul paginii
+     * @return Galeria impreuna cu validatorii HTTP
+     */
+    public GallerySnapshot getGallery(String code, int page, int size, String cursor) {
+        // cheia foloseste dimensiunea efectiva: size=500, 501, ... sunt acelasi raspuns
+        int pageSize = WeddingService.clampPageSize(size);
+        String key = cursor != null
+                ? code + "|c" + cursor + "|" + pageSize
+                : code + "|" + page + "|" + pageSize;
+        // paginile de dupa ultima poza sunt goale si nu se pastreaza: altfel orice numar de pagina ar ocupa o intrare
+        return getOrLoad(code, key, "v1", () -> load(code, page, pageSize, cursor),
+                snapshot -> cursor != null || page == 0 || snapshot.photoCount() > 0);
+    }
+
+    /**
+     * Returneaza galeria in reprezentarea compacta (v2), din cache sau din baza de date
+     * @param code Codul galeriei
+     * @param cursor Cursorul paginarii keyset sau null pentru toate pozele
+     * @param size Dimensiunea paginii (doar cu cursor)
+     * @return Galeria compacta impreuna cu validatorii HTTP
+     */
+    public GallerySnapshot getCompactGallery(String code, String cursor, int size) {
+        int pageSize = WeddingService.clampPageSize(size);
+        String key = code + "|v2|" + (cursor != null ? "c" + cursor + "|" + pageSize : "all");
+        return getOrLoad(code, key, "v2", () -> {
+            Wedding wedding = weddingService.getWeddingByCode(code);
+            CompactGalleryDto gallery = weddingService.getCompactGallery(code, cursor, pageSize);
+            return toSnapshot(code, wedding, gallery, gallery.getPhotos().size());
+        }, snapshot -> true);
+    }
+
+    // version eticheteaza metricile (v1 / v2): interogarea si serializarea la cache miss;
+    // cacheable decide daca raspunsul incarcat se pastreaza
+    private GallerySnapshot getOrLoad(String code, String key, String version, Supplier<GallerySnapshot> loader,
+                                      Predicate<GallerySnapshot> cacheable) {
+        synchronized (entries) {
+            GallerySnapshot cached = entries.get(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                metricsService.count("gallery.cache", "result", "hit", 1);
+                return cached;
+            }
+        }
+
+        misses.incrementAndGet();
+        metricsService.count("gallery.cache", "result", "miss", 1);
+        long loadGeneration = generations.getOrDefault(code, 0L);
+        long loadStart = System.nanoTime();
+        GallerySnapshot snapshot = loader.get();
+        metricsService.timer("gallery.load", "version", version).recordSince(loadStart);
+
+        synchronized (entries) {
+            if (generations.getOrDefault(code, 0L) == loadGeneration && maxWeight > 0 && cacheable.test(snapshot)) {
+                GallerySnapshot previous = entries.put(key, snapshot);
+                if (previous != null) {
+                    currentWeight -= previous.weight();
+                }
+                currentWeight += snapshot.weight();
+                evictIfNeeded();
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Dupa commit-ul unei sincronizari sau stergeri elimina toate paginile galeriei din cache;
+     * dupa o sincronizare programeaza in fundal raspunsul cerut de frontend la deschiderea galeriei
+     */
+    @TransactionalEventListener
+    public void onGalleryChanged(GalleryChangedEvent event) {
+        invalidate(event.code());
+        if (!event.deleted()) {
+            schedulePrewarm(event.code());
+        }
+    }
+
+    // sincronizarile repetate ale aceleiasi galerii cat timp ea asteapta in coada produc o singura pregatire
+    private void schedulePrewarm(String code) {
+        if (prewarmQueued.add(code)) {
+            prewarmer.submit(() -> {
+                prewarmQueued.remove(code);
+                try {
+                    getCompactGallery(code, FIRST_PAGE_CURSOR, FIRST_PAGE_SIZE);
+                } catch (RuntimeException e) {
+                    log.warn("Galeria {} nu a putut fi pregatita dupa sincronizare", code, e);
+                }
+            });
+        }
+    }
+
+    public void invalidate(String code) {
+        String prefix = code + "|";
+        synchronized (entries) {
+            generations.merge(code, 1L, Long::sum);
+            Iterator<Map.Entry<String, GallerySnapshot>> it = entries.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<String, GallerySnapshot> entry = it.next();
+                if (entry.getKey().startsWith(prefix)) {
+                    currentWeight -= entry.getValue().weight();
+                    it.remove();
+                }
+            }
+        }
+        invalidations.incrementAndGet();
+        log.debug("Galeria {} a fost eliminata din cache", code);
+    }
+
+    public GalleryCacheStatsDto getStats() {
+        synchronized (entries) {
+            return GalleryCacheStatsDto.builder()
+                    .entries(entries.size())
+                    .weight(currentWeight)
+                    .maxWeight(maxWeight)
+                    .hits(hits.get())
+                    .misses(misses.get())
+                    .evictions(evictions.get())
+                    .invalidations(invalidations.get())
+                    .build();
+        }
+    }
+
+    private GallerySnapshot load(String code, int page, int size, String cursor) {
+        Wedding wedding = weddingService.getWeddingByCode(code);
+        GalleryResponseDto gallery;
+        if (cursor != null) {
+            gallery = weddingService.getGalleryByCursor(code, cursor, size);
+        } else if (page == 0 && size == 20) {
+            // Pentru compatibilitate, daca nu sunt parametri, returneaza toate pozele
+            gallery = weddingService.getGalleryByCode(code);
+        } else {
+            gallery = weddingService.getGalleryByCodePaginated(code, page, size);
+        }
+        return toSnapshot(code, wedding, gallery, gallery.getPhotos() != null ? gallery.getPhotos().size() : 0);
+    }
+
+    private GallerySnapshot toSnapshot(String code, Wedding wedding, Object gallery, int photoCount) {
+        long lastModified = wedding.getLastSyncedAt() != null
+                ? wedding.getLastSyncedAt().toInstant(ZoneOffset.UTC).toEpochMilli()
+                : -1;
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(gallery);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Galeria " + code + " nu a putut fi serializata", e);
+        }
+        // ETag din continut: corect si pentru galeriile nesincronizate sau paginile dupa cursor
+        String etag = "g-" + HexFormat.of().formatHex(sha256(json), 0, 8);
+        return new GallerySnapshot(json, gzip(json), etag, lastModified, photoCount);
+    }
+
+    private static byte[] gzip(byte[] content) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(content.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static byte[] sha256(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // apelat cu lock-ul pe entries
+    private void evictIfNeeded() {
+        Iterator<GallerySnapshot> it = entries.values().iterator();
+        while (currentWeight > maxWeight && it.hasNext()) {
+            currentWeight -= it.next().weight();
+            it.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Raspunsul unei galerii, pregatit pentru servire
+     * @param json Galeria serializata (JSON)
+     * @param gzip Acelasi JSON comprimat gzip
+     * @param etagValue Valoarea ETag-ului (fara ghilimele), derivata din continut
+     * @param lastModified Momentul ultimei sincronizari (epoch millis) sau -1
+     * @param photoCount Numarul de poze din raspuns
+     */
+    public record GallerySnapshot(byte[] json, byte[] gzip, String etagValue, long lastModified, int photoCount) {
+
+        public byte[] body(boolean gzipped) {
+            return gzipped ? gzip : json;
+        }
+
+        // fiecare codificare are propriul ETag puternic (continutul trimis difera)
+        public String etag(boolean gzipped) {
+            return "\"" + etagValue + (gzipped ? "-gz" : "") + "\"";
+        }
+
+        // greutatea in cache: numarul de poze din pagina (plus intrarea insasi)
+        long weight() {
+            return 1 + photoCount;
+        }
+    }
+}
@@ -1,16 +1,33 @@
 package com.PJ.Project.service;
 
+import com.PJ.Project.exception.DriveQuotaExceededException;
+import com.google.api.client.googleapis.batch.BatchRequest;
+import com.google.api.client.googleapis.batch.json.JsonBatchCallback;
+import com.google.api.client.googleapis.json.GoogleJsonError;
+import com.google.api.client.http.HttpHeaders;
 import com.google.api.services.drive.Drive;
 import com.google.api.services.drive.model.File;
 import com.google.api.services.drive.model.FileList;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 
 @Service
 @Slf4j
@@ -19,47 +36,133 @@ import java.util.List;
 public class GoogleDriveService {
 
     private final Drive driveService;
+    private final DriveRequestLimiter requestLimiter;
+    private final MetricsService metricsService;
+
+    private static final String FOLDER_MIME_TYPE = "application/vnd.google-apps.folder";
+    private static final List<String> IMAGE_MIME_TYPES = List.of(
+        "image/jpeg", "image/png", "image/gif", "image/webp", 
+        "image/bmp", "image/tiff", "image/svg+xml"
+    );
+    // limita Drive pentru numarul de cereri dintr-un batch
+    private static final int MAX_BATCH_SIZE = 100;
+    private static final String METADATA_FIELDS = "id, name, mimeType, size, md5Checksum, modifiedTime, thumbnailLink";
+    // doar campurile folosite la sincronizare
+    private static final String LIST_FIELDS = "nextPageToken, files(id, name, mimeType, size, md5Checksum, modifiedTime, "
+            + "imageMediaMetadata(width, height))";
+
+    // numarul maxim de cereri de listare trimise simultan catre Drive
+    @Value("${fotoit.drive.list-concurrency:8}")
+    private int listConcurrency;
 
     // pentru a obtine toate imaginile din folderul Google Drive
-    public List<File> listFilesInFolderRecursive(String folderId) throws IOException {
+    // Subfolderele sunt listate in paralel; ordinea rezultatului este aceeasi ca la parcurgerea in adancime
+    // Fiecare folder listat este raportat listener-ului, care poate si opri listarea
+    public List<File> listFilesInFolderRecursive(String folderId, SyncProgressListener listener) throws IOException {
         log.info("Listare recursiva fisiere din folder: {}", folderId);
-        List<File> allImages = new ArrayList<>();
-        listFilesRecursive(folderId, allImages);
-        log.info("Total imagini gasite (recursiv): {}", allImages.size());
-        return allImages;
+        Semaphore permits = new Semaphore(Math.max(1, listConcurrency));
+        Set<String> visited = ConcurrentHashMap.newKeySet();
+        visited.add(folderId);
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        long start = System.nanoTime();
+        try {
+            List<File> allImages = listFilesRecursive(folderId, executor, permits, visited, listener);
+            metricsService.timer("drive.list.recursive").recordSince(start);
+            log.info("Total imagini gasite (recursiv): {} in {} foldere", allImages.size(), visited.size());
+            return allImages;
+        } finally {
+            executor.shutdownNow();
+        }
     }
 
     // pentru a obtine toate imaginile din folderul Google Drive recursiv
-    private void listFilesRecursive(String folderId, List<File> allImages) throws IOException {
-        String pageToken = null;
-        List<String> imageMimeTypes = List.of(
-            "image/jpeg", "image/png", "image/gif", "image/webp", 
-            "image/bmp", "image/tiff", "image/svg+xml"
-        );
+    private List<File> listFilesRecursive(String folderId, ExecutorService executor, Semaphore permits,
+                                          Set<String> visited, SyncProgressListener listener) throws IOException {
+        List<File> items = listFolder(folderId, permits, listener);
+        listener.folderScanned((int) items.stream().filter(GoogleDriveService::isImage).count());
+        
+        // subfolderele pornesc imediat, in paralel; rezultatele lor sunt asteptate in ordinea din folder
+        Map<String, Future<List<File>>> subfolders = new HashMap<>();
+        for (File item : items) {
+            if (FOLDER_MIME_TYPE.equals(item.getMimeType()) && visited.add(item.getId())) {
+                subfolders.put(item.getId(),
+                        executor.submit(() -> listFilesRecursive(item.getId(), executor, permits, visited, listener)));
+            }
+        }
         
+        List<File> images = new ArrayList<>();
+        for (File item : items) {
+            if (FOLDER_MIME_TYPE.equals(item.getMimeType())) {
+                Future<List<File>> subfolder = subfolders.get(item.getId());
+                if (subfolder != null) {
+                    images.addAll(await(subfolder));
+                }
+            } else if (isImage(item)) {
+                images.add(item);
+            }
+        }
+        return images;
+    }
+
+    private static boolean isImage(File item) {
+        String mimeType = item.getMimeType();
+        return mimeType != null && IMAGE_MIME_TYPES.stream().anyMatch(mimeType::startsWith);
+    }
+
+    // listeaza continutul direct al unui folder (toate paginile), sortat dupa nume
+    private List<File> listFolder(String folderId, Semaphore permits, SyncProgressListener listener) throws IOException {
+        List<File> items = new ArrayList<>();
+        String pageToken = null;
         do {
-            String query = String.format("'%s' in parents and trashed=false", folderId);
-            FileList result = driveService.files().list()
-                    .setQ(query)
-                    .setFields("nextPageToken, files(id, name, mimeType, webViewLink, webContentLink, thumbnailLink)")
-                    .setPageToken(pageToken)
-                    .execute();
+            String query = String.format("'%s' in parents and trashed=false and (mimeType contains 'image/' or mimeType = '%s')",
+                    folderId, FOLDER_MIME_TYPE);
+            FileList result;
+            listener.checkCancelled();
+            acquire(permits);
+            try {
+                Drive.Files.List request = driveService.files().list()
+                        .setQ(query)
+                        .setFields(LIST_FIELDS)
+                        .setOrderBy("name")
+                        .setPageSize(1000)
+                        .setPageToken(pageToken);
+                result = requestLimiter.execute("files.list", request::execute);
+            } finally {
+                permits.release();
+            }
             
-            List<File> items = result.getFiles();
-            if (items != null) {
-                for (File item : items) {
-                    String mimeType = item.getMimeType();
-                    if (mimeType != null) {
-                        if (mimeType.equals("application/vnd.google-apps.folder")) {
-                            listFilesRecursive(item.getId(), allImages);
-                        } else if (imageMimeTypes.stream().anyMatch(mimeType::startsWith)) {
-                            allImages.add(item);
-                        }
-                    }
-                }
+            if (result.getFiles() != null) {
+                items.addAll(result.getFiles());
             }
             pageToken = result.getNextPageToken();
         } while (pageToken != null);
+        return items;
+    }
+
+    private static void acquire(Semaphore permits) throws IOException {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Listarea folderelor a fost intrerupta", e);
+        }
+    }
+
+    private static List<File> await(Future<List<File>> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Listarea folderelor a fost intrerupta", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException("Eroare la listarea unui subfolder", e.getCause());
+        }
     }
 
     // pentru a obtine URL-ul de vizualizare a imaginii
@@ -83,10 +186,8 @@ public class GoogleDriveService {
      */
     public String getThumbnailLink(String fileId) throws IOException {
         try {
-            com.google.api.services.drive.model.File file = driveService.files().get(fileId)
-                    .setFields("thumbnailLink")
-                    .execute();
-            return file.getThumbnailLink();
+            File file = getFilesMetadata(List.of(fileId)).get(fileId);
+            return file != null ? file.getThumbnailLink() : null;
         } catch (Exception e) {
             log.warn("Nu s-a putut obtine thumbnail link pentru fisierul {}", fileId, e);
             return null;
@@ -100,16 +201,132 @@ public class GoogleDriveService {
      * @throws IOException daca apare o eroare la descarcare
      */
     public byte[] downloadFile(String fileId) throws IOException {
+        return metricsService.timer("drive.download").record(() -> {
+            try (InputStream in = openFileStream(fileId)) {
+                byte[] content = in.readAllBytes();
+                metricsService.count("drive.download.bytes", null, null, content.length);
+                return content;
+            }
+        });
+    }
+
+    /**
+     * Deschide continutul unui fisier din Google Drive ca stream, fara a-l incarca in memorie
+     * @param fileId ID-ul fisierului
+     * @return Stream-ul cu continutul fisierului (trebuie inchis de apelant)
+     * @throws IOException daca apare o eroare la descarcare
+     */
+    public InputStream openFileStream(String fileId) throws IOException {
+        try {
+            Drive.Files.Get request = driveService.files().get(fileId);
+            return requestLimiter.execute("files.get media", request::executeMediaAsInputStream);
+        } catch (DriveQuotaExceededException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Eroare la deschiderea fisierului {}", fileId, e);
+            throw new IOException("Nu s-a putut descarca fisierul: " + fileId, e);
+        }
+    }
+
+    /**
+     * Deschide un interval de bytes al unui fisier din Google Drive (cerere Range catre Drive)
+     * @param fileId ID-ul fisierului
+     * @param start Primul byte (inclusiv)
+     * @param end Ultimul byte (inclusiv) sau null pana la sfarsitul fisierului
+     * @return Stream-ul intervalului cerut (trebuie inchis de apelant)
+     * @throws IOException daca apare o eroare la descarcare
+     */
+    public InputStream openFileStream(String fileId, long start, Long end) throws IOException {
         try {
-            return driveService.files().get(fileId)
-                    .executeMediaAsInputStream()
-                    .readAllBytes();
+            Drive.Files.Get request = driveService.files().get(fileId);
+            request.getRequestHeaders().setRange("bytes=" + start + "-" + (end != null ? end : ""));
+            return requestLimiter.execute("files.get media range", request::executeMediaAsInputStream);
+        } catch (DriveQuotaExceededException e) {
+            throw e;
         } catch (Exception e) {
-            log.error("Eroare la descarcarea fisierului {}", fileId, e);
+            log.error("Eroare la deschiderea intervalului {}-{} din fisierul {}", start, end, fileId, e);
             throw new IOException("Nu s-a putut descarca fisierul: " + fileId, e);
         }
     }
 
+    /**
+     * Obtine metadatele unui fisier din Google Drive (dimensiune, tip, checksum)
+     * @param fileId ID-ul fisierului
+     * @return Metadatele fisierului
+     * @throws IOException daca apare o eroare la citirea metadatelor
+     */
+    public File getFileMetadata(String fileId) throws IOException {
+        File file = getFilesMetadata(List.of(fileId)).get(fileId);
+        if (file == null) {
+            throw new IOException("Nu s-au putut obtine metadatele fisierului: " + fileId);
+        }
+        return file;
+    }
+
+    /**
+     * Obtine metadatele mai multor fisiere prin Drive batch API: pana la 100 de cereri files.get
+     * sunt trimise intr-o singura cerere HTTP
+     * @param fileIds ID-urile fisierelor
+     * @return Metadatele pe fileId; fisierele care nu pot fi citite lipsesc din rezultat
+     * @throws IOException daca o cerere batch esueaza
+     */
+    public Map<String, File> getFilesMetadata(Collection<String> fileIds) throws IOException {
+        Map<String, File> metadata = new HashMap<>();
+        List<String> distinctIds = fileIds.stream().distinct().toList();
+        for (int from = 0; from < distinctIds.size(); from += MAX_BATCH_SIZE) {
+            List<String> chunk = distinctIds.subList(from, Math.min(from + MAX_BATCH_SIZE, distinctIds.size()));
+            // cererile refuzate pentru cota sunt retrimise intr-un batch nou, cu backoff
+            List<String> pending = new ArrayList<>(chunk);
+            try {
+                requestLimiter.execute("files.get batch", pending.size(), () -> {
+                    List<String> throttled = new ArrayList<>();
+                    BatchRequest batch = driveService.batch();
+                    for (String fileId : pending) {
+                        driveService.files().get(fileId)
+                                .setFields(METADATA_FIELDS)
+                                .queue(batch, new JsonBatchCallback<File>() {
+                                    @Override
+                                    public void onSuccess(File file, HttpHeaders responseHeaders) {
+                                        metadata.put(fileId, file);
+                                    }
+
+                                    @Override
+                                    public void onFailure(GoogleJsonError error, HttpHeaders responseHeaders) {
+                                        if (isQuotaError(error)) {
+                                            throttled.add(fileId);
+                                            return;
+                                        }
+                                        log.warn("Nu s-au putut obtine metadatele fisierului {}: {} {}",
+                                                fileId, error.getCode(), error.getMessage());
+                                    }
+                                });
+                    }
+                    batch.execute();
+                    pending.retainAll(throttled);
+                    if (!pending.isEmpty()) {
+                        throw new DriveRequestLimiter.ThrottledException(
+                                pending.size() + " cereri din batch refuzate pentru cota");
+                    }
+                    return null;
+                });
+            } catch (DriveQuotaExceededException e) {
+                throw e;
+            } catch (Exception e) {
+                log.error("Eroare la citirea metadatelor pentru {} fisiere", chunk.size(), e);
+                throw new IOException("Nu s-au putut obtine metadatele fisierelor", e);
+            }
+        }
+        return metadata;
+    }
+
+    private static boolean isQuotaError(GoogleJsonError error) {
+        if (error.getCode() == 429) {
+            return true;
+        }
+        return error.getCode() == 403 && error.getErrors() != null && error.getErrors().stream()
+                .anyMatch(detail -> DriveRequestLimiter.isQuotaReason(detail.getReason()));
+    }
+
     /**
      * Obtine numele unui fisier din Google Drive
      * @param fileId ID-ul fisierului
@@ -117,10 +334,8 @@ public class GoogleDriveService {
      */
     public String getFileName(String fileId) {
         try {
-            com.google.api.services.drive.model.File file = driveService.files().get(fileId)
-                    .setFields("name")
-                    .execute();
-            return file.getName();
+            File file = getFilesMetadata(List.of(fileId)).get(fileId);
+            return file != null ? file.getName() : null;
         } catch (Exception e) {
             log.warn("Nu s-a putut obtine numele fisierului {}", fileId, e);
             return null;
@@ -0,0 +1,443 @@
+package com.PJ.Project.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Cache persistent pe disc pentru imaginile servite prin proxy din Google Drive.
+ * Originalele sunt stocate ca "{fileId}.{md5}", iar variantele generate (thumbnail-uri)
+ * ca "{fileId}.{md5}.{varianta}", unde md5 este checksum-ul originalului din care provin.
+ * Indexul este reconstruit la pornire din numele fisierelor; evacuarea se face LRU.
+ * Intrarile se citesc prin open(): cat timp o citire este deschisa fisierul ramane pe disc, iar
+ * evacuarea, inlocuirea sau invalidarea lui il sterg abia la inchiderea ultimei citiri.
+ */
+@Service
+@Slf4j
+public class ImageCacheService {
+
+    private static final String TEMP_SUFFIX = ".tmp";
+    // timpul de acces retinut pe disc se actualizeaza cel mult o data pe ora (ajunge pentru ordinea LRU la pornire)
+    private static final long ACCESS_TIME_RESOLUTION_MS = TimeUnit.HOURS.toMillis(1);
+
+    private final boolean enabled;
+    private final Path cacheDir;
+    private final long maxSizeBytes;
+    private final MetricsService metricsService;
+
+    // ordinea de acces (LRU): prima intrare este cea mai veche
+    private final LinkedHashMap<String, CachedImage> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long currentSizeBytes = 0;
+    // citirile deschise pe fiecare fisier si fisierele scoase din index care asteapta sfarsitul lor
+    // (protejate de lock-ul pe entries)
+    private final Map<Path, Integer> readers = new HashMap<>();
+    private final Set<Path> pendingDeletes = new HashSet<>();
+
+    public ImageCacheService(@Value("${fotoit.cache.enabled:true}") boolean enabled,
+                             @Value("${fotoit.cache.dir:cache/images}") String cacheDir,
+                             @Value("${fotoit.cache.max-size-mb:2048}") long maxSizeMb,
+                             MetricsService metricsService) {
+        this.enabled = enabled;
+        this.cacheDir = Paths.get(cacheDir).toAbsolutePath();
+        this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+        this.metricsService = metricsService;
+    }
+
+    /**
+     * Reconstruieste indexul din fisierele existente pe disc (supravietuieste restart-urilor)
+     */
+    @PostConstruct
+    public void loadIndex() throws IOException {
+        metricsService.gauge("image.cache.size_bytes", null, null, this::getCurrentSizeBytes);
+        metricsService.gauge("image.cache.entries", null, null, this::getEntryCount);
+        if (!enabled) {
+            log.info("Cache-ul de imagini este dezactivat");
+            return;
+        }
+
+        Files.createDirectories(cacheDir);
+
+        List<CachedImage> found = new ArrayList<>();
+        Map<Path, FileTime> accessTimes = new HashMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(cacheDir)) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                if (name.endsWith(TEMP_SUFFIX)) {
+                    // scriere intrerupta inainte de rename - fisierul nu este valid
+                    Files.deleteIfExists(path);
+                    continue;
+                }
+                String[] parts = name.split("\\.");
+                if (parts.length != 2 && parts.length != 3) {
+                    continue;
+                }
+                String variant = parts.length == 3 ? parts[2] : null;
+                found.add(new CachedImage(parts[0], variant, parts[1], Files.size(path), path));
+                accessTimes.put(path, Files.getLastModifiedTime(path));
+            }
+        }
+
+        // intrarile sunt adaugate in ordinea ultimului acces, ca LRU-ul sa continue dupa restart
+        found.sort(Comparator.comparing(image -> accessTimes.get(image.path())));
+
+        synchronized (entries) {
+            for (CachedImage image : found) {
+                CachedImage previous = entries.put(image.key(), image);
+                if (previous != null) {
+                    // doua versiuni ale aceluiasi fisier - pastram doar cea mai recenta
+                    currentSizeBytes -= previous.size();
+                    Files.deleteIfExists(previous.path());
+                }
+                currentSizeBytes += image.size();
+            }
+            evictIfNeeded();
+        }
+
+        log.info("Cache imagini incarcat din {}: {} fisiere, {} MB",
+                cacheDir, entries.size(), currentSizeBytes / (1024 * 1024));
+    }
+
+    /**
+     * Deschide originalul din cache pentru citire
+     * @param fileId ID-ul fisierului din Google Drive
+     * @return Intrarea deschisa (de inchis dupa citire) sau Optional.empty() daca nu exista
+     */
+    public Optional<CachedFile> open(String fileId) {
+        return open(fileId, null);
+    }
+
+    /**
+     * Deschide o varianta a imaginii din cache pentru citire; pana la inchidere fisierul nu este sters
+     * @param fileId ID-ul fisierului din Google Drive
+     * @param variant Numele variantei (ex: "w400") sau null pentru original
+     * @return Intrarea deschisa (de inchis dupa citire) sau Optional.empty() daca nu exista
+     */
+    public Optional<CachedFile> open(String fileId, String variant) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        String key = CachedImage.key(fileId, variant);
+        CachedFile file;
+        synchronized (entries) {
+            CachedImage image = entries.get(key);
+            if (image == null) {
+                return Optional.empty();
+            }
+            readers.merge(image.path(), 1, Integer::sum);
+            file = new CachedFile(image);
+        }
+
+        try {
+            // timpul de modificare retine ultimul acces pentru reconstruirea LRU la pornire; citirile repetate
+            // ale aceleiasi imagini nu mai scriu metadate pe disc la fiecare cerere
+            long now = System.currentTimeMillis();
+            if (now - Files.getLastModifiedTime(file.path()).toMillis() >= ACCESS_TIME_RESOLUTION_MS) {
+                Files.setLastModifiedTime(file.path(), FileTime.fromMillis(now));
+            }
+        } catch (IOException e) {
+            log.warn("Fisierul din cache {} nu mai exista pe disc", file.path());
+            file.close();
+            remove(file.image());
+            return Optional.empty();
+        }
+        return Optional.of(file);
+    }
+
+    /**
+     * Descarca originalul in cache (ca stream) daca nu este deja acolo
+     * @param fileId ID-ul fisierului din Google Drive
+     * @param source Sursa continutului in caz de cache miss
+     * @return Intrarea din cache (se citeste prin open)
+     * @throws IOException daca descarcarea sau scrierea pe disc esueaza
+     */
+    public CachedImage getOrFetch(String fileId, ImageSource source) throws IOException {
+        synchronized (entries) {
+            CachedImage cached = entries.get(CachedImage.key(fileId, null));
+            if (cached != null) {
+                return cached;
+            }
+        }
+        try (InputStream in = source.open()) {
+            return put(fileId, in);
+        }
+    }
+
+    /**
+     * Salveaza originalul unei imagini in cache direct dintr-un stream, cu memorie constanta
+     * @param fileId ID-ul fisierului din Google Drive
+     * @param content Continutul imaginii
+     * @return Intrarea creata sau null daca cache-ul este dezactivat
+     * @throws IOException daca citirea sau scrierea pe disc esueaza
+     */
+    public CachedImage put(String fileId, InputStream content) throws IOException {
+        if (!enabled) {
+            return null;
+        }
+
+        Path temp = Files.createTempFile(cacheDir, fileId + ".", TEMP_SUFFIX);
+        try {
+            MessageDigest md5 = newMd5();
+            long size;
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                size = new DigestInputStream(content, md5).transferTo(out);
+            }
+            String checksum = HexFormat.of().formatHex(md5.digest());
+            return commit(temp, new CachedImage(fileId, null, checksum, size,
+                    cacheDir.resolve(CachedImage.fileName(fileId, null, checksum))));
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Salveaza o varianta generata a imaginii in cache
+     * @param fileId ID-ul fisierului din Google Drive
+     * @param variant Numele variantei (ex: "w400") sau null pentru original
+     * @param checksum MD5 al originalului din care provine varianta
+     * @param content Continutul variantei
+     * @return Intrarea creata sau null daca cache-ul este dezactivat
+     * @throws IOException daca scrierea pe disc esueaza
+     */
+    public CachedImage put(String fileId, String variant, String checksum, byte[] content) throws IOException {
+        if (!enabled) {
+            return null;
+        }
+
+        Path temp = Files.createTempFile(cacheDir, fileId + ".", TEMP_SUFFIX);
+        try {
+            Files.write(temp, content);
+            return commit(temp, new CachedImage(fileId, variant, checksum, content.length,
+                    cacheDir.resolve(CachedImage.fileName(fileId, variant, checksum))));
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // muta atomic fisierul temporar complet scris la locul final si il inregistreaza in index
+    private CachedImage commit(Path temp, CachedImage image) throws IOException {
+        synchronized (entries) {
+            // sub lock: o citire care se inchide acum nu poate sterge fisierul abia mutat in aceeasi cale
+            pendingDeletes.remove(image.path());
+            Files.move(temp, image.path(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            CachedImage previous = entries.put(image.key(), image);
+            if (previous != null) {
+                currentSizeBytes -= previous.size();
+                if (!previous.path().equals(image.path())) {
+                    deleteWhenUnread(previous.path());
+                }
+            }
+            currentSizeBytes += image.size();
+            evictIfNeeded();
+        }
+        return image;
+    }
+
+    /**
+     * Elimina din cache originalele si variantele al caror checksum nu mai corespunde cu Google Drive
+     * @param checksumsByFileId Checksum-ul MD5 curent raportat de Google Drive, pe fileId
+     */
+    public void evictStale(Map<String, String> checksumsByFileId) {
+        if (!enabled || checksumsByFileId.isEmpty()) {
+            return;
+        }
+
+        List<CachedImage> stale = new ArrayList<>();
+        synchronized (entries) {
+            for (CachedImage image : entries.values()) {
+                String checksum = checksumsByFileId.get(image.fileId());
+                if (checksum != null && !image.checksum().equalsIgnoreCase(checksum)) {
+                    stale.add(image);
+                }
+            }
+        }
+
+        for (CachedImage image : stale) {
+            log.debug("Imaginea {} s-a schimbat in Drive, se elimina din cache", image.key());
+            remove(image);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getCurrentSizeBytes() {
+        synchronized (entries) {
+            return currentSizeBytes;
+        }
+    }
+
+    public int getEntryCount() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Calculeaza checksum-ul MD5 in acelasi format ca md5Checksum din Google Drive
+     */
+    public static String md5Hex(byte[] content) {
+        return HexFormat.of().formatHex(newMd5().digest(content));
+    }
+
+    private static MessageDigest newMd5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 indisponibil", e);
+        }
+    }
+
+    private void remove(CachedImage image) {
+        synchronized (entries) {
+            if (entries.remove(image.key(), image)) {
+                currentSizeBytes -= image.size();
+                deleteWhenUnread(image.path());
+            }
+        }
+    }
+
+    // la inchiderea ultimei citiri sterge fisierul, daca intre timp a fost scos din index
+    private void release(Path path) {
+        synchronized (entries) {
+            Integer remaining = readers.merge(path, -1, Integer::sum);
+            if (remaining != null && remaining <= 0) {
+                readers.remove(path);
+                if (pendingDeletes.remove(path)) {
+                    deleteQuietly(path);
+                }
+            }
+        }
+    }
+
+    // apelat cu lock-ul pe entries: fisierele cu citiri deschise sunt sterse abia la inchiderea lor
+    private void deleteWhenUnread(Path path) {
+        if (readers.containsKey(path)) {
+            pendingDeletes.add(path);
+        } else {
+            deleteQuietly(path);
+        }
+    }
+
+    // apelat cu lock-ul pe entries
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<String, CachedImage>> it = entries.entrySet().iterator();
+        // intrarea cea mai recenta ramane mereu, chiar daca singura depaseste limita
+        while (currentSizeBytes > maxSizeBytes && entries.size() > 1) {
+            CachedImage eldest = it.next().getValue();
+            it.remove();
+            currentSizeBytes -= eldest.size();
+            deleteWhenUnread(eldest.path());
+            log.debug("Evacuat din cache: {} ({} bytes)", eldest.key(), eldest.size());
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Nu s-a putut sterge fisierul din cache {}", path, e);
+        }
+    }
+
+    /**
+     * Sursa continutului unei imagini, incarcat complet in memorie
+     */
+    @FunctionalInterface
+    public interface ImageLoader {
+        byte[] load() throws IOException;
+    }
+
+    /**
+     * Sursa continutului unei imagini la cache miss, ca stream (de obicei Google Drive)
+     */
+    @FunctionalInterface
+    public interface ImageSource {
+        InputStream open() throws IOException;
+    }
+
+    /**
+     * Intrare din cache deschisa pentru citire. Fisierul ramane pe disc pana la close(), chiar daca
+     * intre timp este evacuat sau inlocuit; close() poate fi apelat de mai multe ori.
+     */
+    public final class CachedFile implements Closeable {
+
+        private final CachedImage image;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private CachedFile(CachedImage image) {
+            this.image = image;
+        }
+
+        public CachedImage image() {
+            return image;
+        }
+
+        public Path path() {
+            return image.path();
+        }
+
+        public long size() {
+            return image.size();
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                release(image.path());
+            }
+        }
+    }
+
+    /**
+     * Imagine stocata in cache-ul local
+     * @param fileId ID-ul fisierului din Google Drive
+     * @param variant Numele variantei (ex: "w400") sau null pentru original
+     * @param checksum MD5 al originalului (acelasi format ca md5Checksum din Drive)
+     * @param size Dimensiunea in bytes
+     * @param path Calea fisierului pe disc
+     */
+    public record CachedImage(String fileId, String variant, String checksum, long size, Path path) {
+
+        public String key() {
+            return key(fileId, variant);
+        }
+
+        static String key(String fileId, String variant) {
+            return variant == null ? fileId : fileId + "." + variant;
+        }
+
+        static String fileName(String fileId, String variant, String checksum) {
+            return variant == null ? fileId + "." + checksum : fileId + "." + checksum + "." + variant;
+        }
+    }
+}
@@ -0,0 +1,354 @@
+package com.PJ.Project.service;
+
+import com.PJ.Project.entity.Photo;
+import com.PJ.Project.repository.PhotoRepository;
+import com.PJ.Project.util.ImageTypeDetector;
+import com.google.api.services.drive.model.File;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Sursa imaginilor servite prin proxy: cache-ul local de pe disc, iar la cache miss Google Drive.
+ * Folosit de endpoint-urile de imagini, de generarea thumbnail-urilor si de arhivele ZIP.
+ */
+@Service
+@Slf4j
+public class ImageProxyService {
+
+    private final ImageCacheService imageCacheService;
+    private final PhotoRepository photoRepository;
+    private final DriveFetchCoalescer driveFetchCoalescer;
+    private final MetricsService metricsService;
+
+    @Autowired(required = false)
+    private GoogleDriveService googleDriveService;
+
+    public ImageProxyService(ImageCacheService imageCacheService, PhotoRepository photoRepository,
+                             DriveFetchCoalescer driveFetchCoalescer, MetricsService metricsService) {
+        this.imageCacheService = imageCacheService;
+        this.photoRepository = photoRepository;
+        this.driveFetchCoalescer = driveFetchCoalescer;
+        this.metricsService = metricsService;
+    }
+
+    public boolean isAvailable() {
+        return googleDriveService != null;
+    }
+
+    /**
+     * Deschide originalul ca stream: din cache-ul local (populat in flux la prima cerere)
+     * sau, cu cache-ul dezactivat, direct din Google Drive catre client.
+     * Memoria folosita per cerere nu depinde de dimensiunea fisierului.
+     * @param fileId ID-ul fisierului din Google Drive
+     * @return Continutul pregatit pentru raspuns
+     * @throws IOException daca fisierul nu poate fi descarcat
+     */
+    public ImageBody openOriginal(String fileId) throws IOException {
+        return openOriginal(fileId, List.of());
+    }
+
+    /**
+     * Deschide originalul pentru un raspuns care poate fi partial (Range).
+     * Din cache, intervalele sunt citite direct de la pozitia lor in fisier; fara cache,
+     * fiecare interval cerut este descarcat din Google Drive cu propria cerere Range.
+     * La cache miss, o cerere cu intervale este servita tot prin cereri Range catre Drive,
+     * iar fisierul complet este adus in cache in fundal.
+     * @param fileId ID-ul fisierului din Google Drive
+     * @param ranges Intervalele din header-ul Range al cererii (lista goala pentru tot fisierul)
+     * @return Continutul pregatit pentru raspuns
+     * @throws IOException daca fisierul nu poate fi descarcat
+     */
+    public ImageBody openOriginal(String fileId, List<HttpRange> ranges) throws IOException {
+        // tipul si dimensiunea salvate la sincronizare; fara ele se detecteaza din continut / se cer de la Drive
+        Optional<Photo> photo = photoRepository.findFirstByFileId(fileId);
+        MediaType storedType = photo.map(Photo::getMimeType).map(ImageProxyService::toImageType).orElse(null);
+
+        if (imageCacheService.isEnabled()) {
+            Optional<ImageCacheService.CachedFile> hit = imageCacheService.open(fileId);
+            metricsService.count("image.cache.original", "result", hit.isPresent() ? "hit" : "miss", 1);
+            if (hit.isPresent() || ranges.isEmpty()) {
+                // fisierul ramane deschis (nu este sters din cache) pana la inchiderea ImageBody
+                ImageCacheService.CachedFile cached = hit.isPresent() ? hit.get() : fillCache(fileId);
+                MediaType contentType = storedType != null ? storedType : ImageTypeDetector.detectImageType(cached.path());
+                countContentType(contentType, storedType != null ? "stored" : "detected");
+                return new ImageBody(new FileSystemResource(cached.path()), contentType, cached.size(), cached);
+            }
+            // un Range (ex: reluarea unei descarcari) nu asteapta descarcarea intregului original
+            driveFetchCoalescer.fetchInBackground("cache:" + fileId, cacheFill(fileId));
+        }
+
+        // Content-Length si tipul sunt cunoscute dinainte, continutul se deschide abia la scriere
+        Long storedSize = photo.map(Photo::getFileSize).orElse(null);
+        long contentLength;
+        MediaType contentType;
+        if (storedType != null && storedSize != null) {
+            contentLength = storedSize;
+            contentType = storedType;
+            countContentType(contentType, "stored");
+        } else {
+            File metadata = googleDriveService.getFileMetadata(fileId);
+            contentLength = metadata.getSize() != null ? metadata.getSize() : -1;
+            MediaType driveType = toImageType(metadata.getMimeType());
+            contentType = driveType != null ? driveType : MediaType.IMAGE_JPEG;
+            countContentType(contentType, "drive");
+        }
+        if (contentLength < 0) {
+            // dimensiune necunoscuta: intervalele nu pot fi calculate, se trimite tot fisierul (200);
+            // InputStreamResource nu este transformat de Spring in raspuns partial (nici 416)
+            return new ImageBody(new InputStreamResource(new DriveFileResource(fileId, contentLength, Map.of())),
+                    contentType, contentLength);
+        }
+        return new ImageBody(new DriveFileResource(fileId, contentLength, rangeEnds(ranges, contentLength)),
+                contentType, contentLength);
+    }
+
+    // tipurile originalelor servite si de unde provine tipul (salvat la sincronizare, detectat, cerut de la Drive)
+    private void countContentType(MediaType contentType, String source) {
+        metricsService.count("image.content_type", "type", contentType.toString(), 1);
+        metricsService.count("image.content_type.source", "source", source, 1);
+    }
+
+    private static MediaType toImageType(String mimeType) {
+        if (mimeType == null || !mimeType.startsWith("image/")) {
+            return null;
+        }
+        try {
+            return MediaType.parseMediaType(mimeType);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Deschide originalul din cache-ul local, descarcandu-l la cache miss, pentru citire direct din fisier
+     * (ex: arhivele ZIP, fara copia in memorie a fisierului)
+     * @param fileId ID-ul fisierului din Google Drive
+     * @return Citirea din cache, de inchis de apelant, sau Optional.empty() daca cache-ul este dezactivat
+     * @throws IOException daca fisierul nu poate fi descarcat
+     */
+    public Optional<ImageCacheService.CachedFile> openCachedOriginal(String fileId) throws IOException {
+        if (!imageCacheService.isEnabled()) {
+            return Optional.empty();
+        }
+        return Optional.of(openCached(fileId));
+    }
+
+    /**
+     * Obtine continutul complet al imaginii in memorie (pentru generarea thumbnail-urilor si,
+     * cu cache-ul dezactivat, pentru ZIP)
+     * @param fileId ID-ul fisierului din Google Drive
+     * @return Continutul fisierului
+     * @throws IOException daca fisierul nu poate fi descarcat
+     */
+    public byte[] loadImage(String fileId) throws IOException {
+        if (imageCacheService.isEnabled()) {
+            try (ImageCacheService.CachedFile cached = openCached(fileId)) {
+                return Files.readAllBytes(cached.path());
+            }
+        }
+        // continutul este comun cererilor simultane si nu trebuie modificat de apelanti
+        return driveFetchCoalescer.fetch("bytes:" + fileId, () -> googleDriveService.downloadFile(fileId));
+    }
+
+    // sfarsitul fiecarui interval cerut, dupa pozitia de start, pentru cererile Range catre Drive
+    private static Map<Long, Long> rangeEnds(List<HttpRange> ranges, long contentLength) {
+        Map<Long, Long> ends = new HashMap<>();
+        if (contentLength <= 0) {
+            return ends;
+        }
+        for (HttpRange range : ranges) {
+            try {
+                ends.merge(range.getRangeStart(contentLength), range.getRangeEnd(contentLength), Math::max);
+            } catch (IllegalArgumentException e) {
+                // interval invalid - Spring raspunde cu 416 la scrierea raspunsului
+            }
+        }
+        return ends;
+    }
+
+    /**
+     * Calculeaza validatorii HTTP (ETag, Last-Modified) din metadatele Drive salvate la sincronizare,
+     * fara niciun apel catre Google Drive
+     * @param fileId ID-ul fisierului din Google Drive
+     * @param variant Numele variantei (ex: "w400") sau null pentru original
+     * @return Validatorii sau Optional.empty() daca poza nu are checksum (nesincronizata dupa actualizare)
+     */
+    public Optional<ImageValidators> getValidators(String fileId, String variant) {
+        return photoRepository.findFirstByFileId(fileId)
+                .filter(photo -> photo.getMd5Checksum() != null)
+                .map(photo -> ImageValidators.of(photo, variant));
+    }
+
+    private ImageCacheService.CachedFile openCached(String fileId) throws IOException {
+        Optional<ImageCacheService.CachedFile> cached = imageCacheService.open(fileId);
+        metricsService.count("image.cache.original", "result", cached.isPresent() ? "hit" : "miss", 1);
+        return cached.isPresent() ? cached.get() : fillCache(fileId);
+    }
+
+    // la cache miss, cererile simultane pentru acelasi fisier asteapta o singura descarcare in cache;
+    // fiecare cerere deschide apoi propria citire (de inchis de apelant)
+    private ImageCacheService.CachedFile fillCache(String fileId) throws IOException {
+        driveFetchCoalescer.fetch("cache:" + fileId, cacheFill(fileId));
+        return imageCacheService.open(fileId)
+                .orElseThrow(() -> new IOException("Imaginea " + fileId + " a fost evacuata din cache imediat dupa descarcare"));
+    }
+
+    private DriveFetchCoalescer.Fetch<ImageCacheService.CachedImage> cacheFill(String fileId) {
+        return () -> metricsService.timer("drive.download").record(() -> {
+            ImageCacheService.CachedImage fetched =
+                    imageCacheService.getOrFetch(fileId, () -> googleDriveService.openFileStream(fileId));
+            metricsService.count("drive.download.bytes", null, null, fetched.size());
+            return fetched;
+        });
+    }
+
+    /**
+     * Fisier din Google Drive servit fara cache. Stream-ul se deschide la prima citire: Spring sare
+     * (skip) la inceputul fiecarui interval Range, iar de la pozitia respectiva se face o cerere
+     * Range catre Drive, astfel incat se descarca doar bytes-ii ceruti.
+     */
+    private class DriveFileResource extends AbstractResource {
+
+        private final String fileId;
+        private final long contentLength;
+        private final Map<Long, Long> rangeEnds;
+
+        DriveFileResource(String fileId, long contentLength, Map<Long, Long> rangeEnds) {
+            this.fileId = fileId;
+            this.contentLength = contentLength;
+            this.rangeEnds = rangeEnds;
+        }
+
+        @Override
+        public String getDescription() {
+            return "Google Drive file [" + fileId + "]";
+        }
+
+        @Override
+        public long contentLength() {
+            return contentLength;
+        }
+
+        @Override
+        public boolean isReadable() {
+            return true;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new InputStream() {
+                private long position = 0;
+                private InputStream upstream;
+
+                @Override
+                public long skip(long n) throws IOException {
+                    if (n <= 0) {
+                        return 0;
+                    }
+                    // fiecare salt (inclusiv intre intervalele unui raspuns multipart) devine o noua cerere Range
+                    close();
+                    upstream = null;
+                    position += n;
+                    return n;
+                }
+
+                @Override
+                public int read() throws IOException {
+                    int value = open().read();
+                    if (value >= 0) {
+                        position++;
+                    }
+                    return value;
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    int count = open().read(buffer, offset, length);
+                    if (count > 0) {
+                        position += count;
+                    }
+                    return count;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    if (upstream != null) {
+                        upstream.close();
+                    }
+                }
+
+                private InputStream open() throws IOException {
+                    if (upstream == null) {
+                        Long end = rangeEnds.get(position);
+                        upstream = position == 0 && end == null
+                                ? googleDriveService.openFileStream(fileId)
+                                : googleDriveService.openFileStream(fileId, position, end);
+                    }
+                    return upstream;
+                }
+            };
+        }
+    }
+
+    /**
+     * Continutul unei imagini pregatit pentru raspuns; se inchide dupa scrierea raspunsului
+     * @param resource Sursa continutului
+     * @param contentType Tipul imaginii
+     * @param contentLength Lungimea in bytes sau -1 daca nu se cunoaste
+     * @param release Citirea din cache care tine fisierul pe disc, sau null
+     */
+    public record ImageBody(Resource resource, MediaType contentType, long contentLength, Closeable release)
+            implements Closeable {
+
+        public ImageBody(Resource resource, MediaType contentType, long contentLength) {
+            this(resource, contentType, contentLength, null);
+        }
+
+        public static ImageBody jpeg(byte[] content) {
+            return new ImageBody(new ByteArrayResource(content), MediaType.IMAGE_JPEG, content.length);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (release != null) {
+                release.close();
+            }
+        }
+    }
+
+    /**
+     * Validatorii HTTP ai unei imagini
+     * @param etag ETag puternic, intre ghilimele
+     * @param lastModified Momentul ultimei modificari in Drive (epoch millis) sau -1 daca nu se cunoaste
+     */
+    public record ImageValidators(String etag, long lastModified) {
+
+        static ImageValidators of(Photo photo, String variant) {
+            long lastModified = photo.getModifiedTime() != null
+                    ? photo.getModifiedTime().toInstant(ZoneOffset.UTC).toEpochMilli()
+                    : -1;
+            // variantele au continut diferit de original, deci si ETag diferit
+            String tag = photo.getMd5Checksum() + "-" + Long.toHexString(Math.max(lastModified, 0))
+                    + (variant != null ? "-" + variant : "");
+            return new ImageValidators("\"" + tag + "\"", lastModified);
+        }
+    }
+}
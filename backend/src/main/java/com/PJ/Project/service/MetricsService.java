@@ -0,0 +1,290 @@
+package com.PJ.Project.service;
+
+import com.PJ.Project.dto.MetricValueDto;
+import com.PJ.Project.dto.MetricsDto;
+import com.PJ.Project.dto.TimerStatsDto;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Metrici in memorie pentru caile critice: timere cu histograma de latenta, contoare si gauge-uri,
+ * fiecare cu cel mult o eticheta (ex: operatia Drive, endpoint-ul). Valorile sunt cumulative de la
+ * pornirea aplicatiei si sunt expuse ca JSON si in formatul text Prometheus (/admin/metrics).
+ * Valorile etichetelor trebuie sa provina dintr-o multime mica si fixa (nu ID-uri sau coduri).
+ */
+@Service
+public class MetricsService {
+
+    private static final String PREFIX = "fotoit_";
+    // limitele superioare ale histogramelor de latenta, in milisecunde (plus +Inf)
+    private static final long[] LATENCY_BUCKETS_MS = {5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000, 60000};
+
+    private final Map<MetricId, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<MetricId, LongAdder> counters = new ConcurrentHashMap<>();
+    private final Map<MetricId, AtomicLong> gauges = new ConcurrentHashMap<>();
+    private final Map<MetricId, LongSupplier> gaugeFunctions = new ConcurrentHashMap<>();
+
+    public Timer timer(String name) {
+        return timer(name, null, null);
+    }
+
+    /**
+     * @param name Numele metricii (ex: "drive.request")
+     * @param tagKey Numele etichetei (ex: "operation")
+     * @param tagValue Valoarea etichetei
+     * @return Timer-ul, creat la prima folosire
+     */
+    public Timer timer(String name, String tagKey, String tagValue) {
+        return timers.computeIfAbsent(new MetricId(name, tagKey, tagValue), id -> new Timer());
+    }
+
+    public void count(String name, String tagKey, String tagValue, long amount) {
+        counters.computeIfAbsent(new MetricId(name, tagKey, tagValue), id -> new LongAdder()).add(amount);
+    }
+
+    /**
+     * Valoare curenta care creste si scade (ex: cereri in curs)
+     */
+    public AtomicLong gauge(String name, String tagKey, String tagValue) {
+        return gauges.computeIfAbsent(new MetricId(name, tagKey, tagValue), id -> new AtomicLong());
+    }
+
+    /**
+     * Gauge citit din sursa lui la fiecare export (ex: dimensiunea unui cache)
+     * @param value Functia care intoarce valoarea curenta
+     */
+    public void gauge(String name, String tagKey, String tagValue, LongSupplier value) {
+        gaugeFunctions.put(new MetricId(name, tagKey, tagValue), value);
+    }
+
+    public MetricsDto getSnapshot() {
+        return MetricsDto.builder()
+                .timers(sorted(timers).stream()
+                        .map(entry -> entry.getValue().toDto(entry.getKey()))
+                        .toList())
+                .counters(sorted(counters).stream()
+                        .map(entry -> toValueDto(entry.getKey(), entry.getValue().sum()))
+                        .toList())
+                .gauges(sorted(gaugeValues()).stream()
+                        .map(entry -> toValueDto(entry.getKey(), entry.getValue()))
+                        .toList())
+                .build();
+    }
+
+    /**
+     * @return Toate metricile in formatul text Prometheus (timere in secunde, contoare cu sufixul _total)
+     */
+    public String toPrometheus() {
+        StringBuilder out = new StringBuilder();
+        String lastName = null;
+        for (Map.Entry<MetricId, Timer> entry : sorted(timers)) {
+            String name = PREFIX + sanitize(entry.getKey().name()) + "_seconds";
+            if (!name.equals(lastName)) {
+                out.append("# TYPE ").append(name).append(" histogram\n");
+                lastName = name;
+            }
+            entry.getValue().appendPrometheus(out, name, entry.getKey());
+        }
+        for (Map.Entry<MetricId, LongAdder> entry : sorted(counters)) {
+            String name = PREFIX + sanitize(entry.getKey().name()) + "_total";
+            if (!name.equals(lastName)) {
+                out.append("# TYPE ").append(name).append(" counter\n");
+                lastName = name;
+            }
+            out.append(name).append(entry.getKey().labels(null)).append(' ').append(entry.getValue().sum()).append('\n');
+        }
+        for (Map.Entry<MetricId, Long> entry : sorted(gaugeValues())) {
+            String name = PREFIX + sanitize(entry.getKey().name());
+            if (!name.equals(lastName)) {
+                out.append("# TYPE ").append(name).append(" gauge\n");
+                lastName = name;
+            }
+            out.append(name).append(entry.getKey().labels(null)).append(' ').append(entry.getValue()).append('\n');
+        }
+        return out.toString();
+    }
+
+    private Map<MetricId, Long> gaugeValues() {
+        Map<MetricId, Long> values = new HashMap<>();
+        gauges.forEach((id, gauge) -> values.put(id, gauge.get()));
+        gaugeFunctions.forEach((id, value) -> values.put(id, value.getAsLong()));
+        return values;
+    }
+
+    private static <V> List<Map.Entry<MetricId, V>> sorted(Map<MetricId, V> metrics) {
+        return metrics.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(Comparator.comparing(MetricId::name)
+                        .thenComparing(id -> id.tagValue() != null ? id.tagValue() : "")))
+                .toList();
+    }
+
+    private static MetricValueDto toValueDto(MetricId id, long value) {
+        return MetricValueDto.builder()
+                .name(id.name())
+                .tags(id.tags())
+                .value(value)
+                .build();
+    }
+
+    private static String sanitize(String name) {
+        return name.replaceAll("[^a-zA-Z0-9_]", "_");
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * Numele metricii si eticheta ei (tagKey si tagValue sunt null pentru metricile fara eticheta)
+     */
+    private record MetricId(String name, String tagKey, String tagValue) {
+
+        Map<String, String> tags() {
+            return tagKey != null ? Map.of(tagKey, tagValue) : Map.of();
+        }
+
+        // {tag="valoare"} pentru Prometheus; le este eticheta suplimentara a bucket-urilor
+        String labels(String le) {
+            StringBuilder labels = new StringBuilder();
+            if (tagKey != null) {
+                labels.append(sanitize(tagKey)).append("=\"").append(escape(tagValue)).append('"');
+            }
+            if (le != null) {
+                labels.append(labels.isEmpty() ? "" : ",").append("le=\"").append(le).append('"');
+            }
+            return labels.isEmpty() ? "" : "{" + labels + "}";
+        }
+
+        private static String escape(String value) {
+            return String.valueOf(value).replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+        }
+    }
+
+    /**
+     * Durata unei operatii: numar, suma, maxim si histograma pe LATENCY_BUCKETS_MS
+     */
+    public static final class Timer {
+
+        private final LongAdder[] buckets = new LongAdder[LATENCY_BUCKETS_MS.length + 1];
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        Timer() {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        public void record(long nanos) {
+            // comparatia in nanosecunde: 5.9 ms nu intra in bucket-ul le=5 ms
+            int bucket = 0;
+            while (bucket < LATENCY_BUCKETS_MS.length
+                    && nanos > TimeUnit.MILLISECONDS.toNanos(LATENCY_BUCKETS_MS[bucket])) {
+                bucket++;
+            }
+            buckets[bucket].increment();
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        /**
+         * @param startNanos Valoarea System.nanoTime() de la inceputul operatiei
+         */
+        public void recordSince(long startNanos) {
+            record(System.nanoTime() - startNanos);
+        }
+
+        /**
+         * Executa operatia si inregistreaza durata ei, inclusiv cand operatia arunca o exceptie
+         */
+        public <T, E extends Exception> T record(TimedCall<T, E> call) throws E {
+            long start = System.nanoTime();
+            try {
+                return call.call();
+            } finally {
+                recordSince(start);
+            }
+        }
+
+        TimerStatsDto toDto(MetricId id) {
+            long total = count.sum();
+            long[] cumulative = cumulativeCounts();
+            Map<String, Long> histogram = new LinkedHashMap<>();
+            for (int i = 0; i < LATENCY_BUCKETS_MS.length; i++) {
+                histogram.put(String.valueOf(LATENCY_BUCKETS_MS[i]), cumulative[i]);
+            }
+            histogram.put("+Inf", cumulative[LATENCY_BUCKETS_MS.length]);
+            double max = millis(maxNanos.get());
+            return TimerStatsDto.builder()
+                    .name(id.name())
+                    .tags(id.tags())
+                    .count(total)
+                    .totalMs(millis(totalNanos.sum()))
+                    .meanMs(total > 0 ? millis(totalNanos.sum()) / total : 0)
+                    .maxMs(max)
+                    .p50Ms(percentile(cumulative, total, 0.50, max))
+                    .p95Ms(percentile(cumulative, total, 0.95, max))
+                    .p99Ms(percentile(cumulative, total, 0.99, max))
+                    .bucketsMs(histogram)
+                    .build();
+        }
+
+        void appendPrometheus(StringBuilder out, String name, MetricId id) {
+            long[] cumulative = cumulativeCounts();
+            for (int i = 0; i < LATENCY_BUCKETS_MS.length; i++) {
+                out.append(name).append("_bucket").append(id.labels(String.valueOf(LATENCY_BUCKETS_MS[i] / 1000.0)))
+                        .append(' ').append(cumulative[i]).append('\n');
+            }
+            out.append(name).append("_bucket").append(id.labels("+Inf"))
+                    .append(' ').append(cumulative[LATENCY_BUCKETS_MS.length]).append('\n');
+            out.append(name).append("_sum").append(id.labels(null))
+                    .append(' ').append(totalNanos.sum() / 1e9).append('\n');
+            out.append(name).append("_count").append(id.labels(null))
+                    .append(' ').append(cumulative[LATENCY_BUCKETS_MS.length]).append('\n');
+        }
+
+        private long[] cumulativeCounts() {
+            long[] cumulative = new long[buckets.length];
+            long running = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                running += buckets[i].sum();
+                cumulative[i] = running;
+            }
+            return cumulative;
+        }
+
+        // estimat din histograma: limita superioara a bucket-ului care contine percentila (cel mult maximul)
+        private static double percentile(long[] cumulative, long total, double quantile, double max) {
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(quantile * total);
+            for (int i = 0; i < LATENCY_BUCKETS_MS.length; i++) {
+                if (cumulative[i] >= rank) {
+                    return Math.min(LATENCY_BUCKETS_MS[i], max);
+                }
+            }
+            return max;
+        }
+    }
+
+    /**
+     * O operatie masurata de Timer.record
+     */
+    @FunctionalInterface
+    public interface TimedCall<T, E extends Exception> {
+        T call() throws E;
+    }
+}
@@ -0,0 +1,309 @@
+package com.PJ.Project.service;
+
+import com.PJ.Project.dto.SyncJobDto;
+import com.PJ.Project.dto.SyncJobStatus;
+import com.PJ.Project.dto.SyncResultDto;
+import com.PJ.Project.entity.Wedding;
+import com.PJ.Project.exception.ResourceNotFoundException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Ruleaza sincronizarile cu Google Drive ca job-uri in fundal, cu cel mult un job activ per eveniment.
+ * Progresul (foldere listate, imagini gasite, randuri scrise) este disponibil ca JSON si ca stream SSE.
+ * Job-urile sunt tinute doar in memorie; ultimele job-uri terminate raman vizibile pentru consultare.
+ */
+@Service
+@Slf4j
+public class SyncJobService {
+
+    private static final int MAX_FINISHED_JOBS = 50;
+    private static final long PROGRESS_INTERVAL_MS = 250;
+    private static final long EMITTER_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(30);
+
+    private final WeddingService weddingService;
+    private final ThreadPoolExecutor executor;
+
+    // toate job-urile, in ordinea pornirii; ambele map-uri sunt protejate de lock-ul pe jobs
+    private final LinkedHashMap<String, SyncJob> jobs = new LinkedHashMap<>();
+    private final Map<Long, SyncJob> activeByWedding = new HashMap<>();
+
+    public SyncJobService(WeddingService weddingService,
+                          @Value("${fotoit.sync.workers:2}") int workers) {
+        this.weddingService = weddingService;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(Math.max(1, workers), Math.max(1, workers),
+                0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "sync-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Porneste sincronizarea unui eveniment in fundal. Daca exista deja un job activ
+     * pentru eveniment, il returneaza pe acela in loc sa porneasca altul.
+     * @param weddingId ID-ul evenimentului
+     * @return Starea job-ului
+     */
+    public SyncJobDto start(Long weddingId) {
+        Wedding wedding = weddingService.getWeddingById(weddingId);
+        synchronized (jobs) {
+            SyncJob active = activeByWedding.get(weddingId);
+            if (active != null) {
+                return active.toDto();
+            }
+
+            SyncJob job = new SyncJob(UUID.randomUUID().toString(), weddingId, wedding.getCode());
+            jobs.put(job.id, job);
+            activeByWedding.put(weddingId, job);
+            pruneFinished();
+            job.future = executor.submit(() -> run(job));
+            log.info("Pornit job de sincronizare {} pentru eveniment {}", job.id, weddingId);
+            return job.toDto();
+        }
+    }
+
+    public Optional<SyncJobDto> find(String jobId) {
+        return findJob(jobId).map(SyncJob::toDto);
+    }
+
+    /**
+     * @return Job-urile in asteptare sau in curs
+     */
+    public List<SyncJobDto> findActive() {
+        synchronized (jobs) {
+            return activeByWedding.values().stream()
+                    .map(SyncJob::toDto)
+                    .toList();
+        }
+    }
+
+    /**
+     * Anuleaza un job; modificarile facute de el in baza de date sunt anulate (rollback)
+     * @param jobId ID-ul job-ului
+     * @return Starea job-ului dupa cererea de anulare
+     */
+    public Optional<SyncJobDto> cancel(String jobId) {
+        Optional<SyncJob> job = findJob(jobId);
+        job.ifPresent(SyncJob::cancel);
+        return job.map(SyncJob::toDto);
+    }
+
+    /**
+     * Deschide un stream SSE cu progresul job-ului; se inchide cand job-ul se termina
+     * @param jobId ID-ul job-ului
+     * @return Emitter-ul SSE
+     */
+    public SseEmitter subscribe(String jobId) {
+        SyncJob job = findJob(jobId).orElseThrow(() -> new ResourceNotFoundException("SyncJob", "id", jobId));
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        emitter.onCompletion(() -> job.emitters.remove(emitter));
+        emitter.onTimeout(() -> job.emitters.remove(emitter));
+        emitter.onError(error -> job.emitters.remove(emitter));
+        job.emitters.add(emitter);
+        // starea curenta imediat; daca job-ul s-a terminat intre timp, stream-ul se inchide
+        job.send(emitter, job.toDto());
+        return emitter;
+    }
+
+    private Optional<SyncJob> findJob(String jobId) {
+        synchronized (jobs) {
+            return Optional.ofNullable(jobs.get(jobId));
+        }
+    }
+
+    private void run(SyncJob job) {
+        // job-ul anulat cat timp era in coada a fost deja finalizat si eliberat de cancel()
+        if (!job.status.compareAndSet(SyncJobStatus.QUEUED, SyncJobStatus.RUNNING)) {
+            return;
+        }
+        job.startedAt = LocalDateTime.now();
+        job.publish(true);
+        try {
+            SyncResultDto result = weddingService.syncPhotosFromGoogleDrive(job.weddingId, job);
+            job.finish(SyncJobStatus.COMPLETED, result, null);
+        } catch (Exception e) {
+            if (job.cancelled || e instanceof CancellationException) {
+                log.info("Job de sincronizare {} anulat", job.id);
+                job.finish(SyncJobStatus.CANCELLED, null, null);
+            } else {
+                log.error("Eroare la sincronizare poze pentru eveniment {}", job.weddingId, e);
+                job.finish(SyncJobStatus.FAILED, null, e.getMessage());
+            }
+        } finally {
+            release(job);
+        }
+    }
+
+    private void release(SyncJob job) {
+        synchronized (jobs) {
+            activeByWedding.remove(job.weddingId, job);
+        }
+    }
+
+    // apelat cu lock-ul pe jobs
+    private void pruneFinished() {
+        long finished = jobs.values().stream().filter(job -> job.status.get().isFinished()).count();
+        Iterator<SyncJob> it = jobs.values().iterator();
+        while (finished > MAX_FINISHED_JOBS && it.hasNext()) {
+            if (it.next().status.get().isFinished()) {
+                it.remove();
+                finished--;
+            }
+        }
+    }
+
+    /**
+     * Un job de sincronizare; primeste progresul direct de la WeddingService si GoogleDriveService
+     */
+    private class SyncJob implements SyncProgressListener {
+
+        private final String id;
+        private final Long weddingId;
+        private final String weddingCode;
+        private final AtomicInteger foldersScanned = new AtomicInteger();
+        private final AtomicInteger filesFound = new AtomicInteger();
+        private final AtomicInteger rowsWritten = new AtomicInteger();
+        private final AtomicLong lastPublished = new AtomicLong();
+        private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+        // QUEUED -> RUNNING este revendicat de run(), QUEUED -> CANCELLED de cancel(); exact unul reuseste
+        private final AtomicReference<SyncJobStatus> status = new AtomicReference<>(SyncJobStatus.QUEUED);
+        private volatile boolean cancelled;
+        private volatile SyncResultDto result;
+        private volatile String error;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile Future<?> future;
+
+        SyncJob(String id, Long weddingId, String weddingCode) {
+            this.id = id;
+            this.weddingId = weddingId;
+            this.weddingCode = weddingCode;
+        }
+
+        @Override
+        public void folderScanned(int imageCount) {
+            foldersScanned.incrementAndGet();
+            filesFound.addAndGet(imageCount);
+            publish(false);
+        }
+
+        @Override
+        public void rowsWritten(int count) {
+            rowsWritten.addAndGet(count);
+            publish(false);
+        }
+
+        @Override
+        public void checkCancelled() {
+            if (cancelled) {
+                throw new CancellationException("Sincronizarea a fost anulata");
+            }
+        }
+
+        void cancel() {
+            if (status.get().isFinished()) {
+                return;
+            }
+            cancelled = true;
+            Future<?> running = future;
+            if (status.compareAndSet(SyncJobStatus.QUEUED, SyncJobStatus.CANCELLED)) {
+                // job-ul nu a pornit - run() nu il mai preia, asa ca este finalizat si eliberat aici
+                if (running != null) {
+                    running.cancel(false);
+                }
+                finishedAt = LocalDateTime.now();
+                publish(true);
+                release(this);
+            } else if (running != null) {
+                // job-ul ruleaza - il intrerupe; run() il finalizeaza ca CANCELLED
+                running.cancel(true);
+            }
+        }
+
+        void finish(SyncJobStatus finalStatus, SyncResultDto finalResult, String finalError) {
+            result = finalResult;
+            error = finalError;
+            finishedAt = LocalDateTime.now();
+            status.set(finalStatus);
+            publish(true);
+        }
+
+        // trimite progresul catre abonati, cel mult o data la PROGRESS_INTERVAL_MS (starile finale mereu)
+        void publish(boolean force) {
+            long now = System.currentTimeMillis();
+            long last = lastPublished.get();
+            if (!force && (now - last < PROGRESS_INTERVAL_MS || !lastPublished.compareAndSet(last, now))) {
+                return;
+            }
+            if (emitters.isEmpty()) {
+                return;
+            }
+            SyncJobDto snapshot = toDto();
+            for (SseEmitter emitter : new ArrayList<>(emitters)) {
+                send(emitter, snapshot);
+            }
+        }
+
+        void send(SseEmitter emitter, SyncJobDto snapshot) {
+            try {
+                emitter.send(SseEmitter.event().name("progress").data(snapshot, MediaType.APPLICATION_JSON));
+                if (snapshot.getStatus().isFinished()) {
+                    emitter.complete();
+                    emitters.remove(emitter);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // clientul a inchis conexiunea
+                emitters.remove(emitter);
+            }
+        }
+
+        SyncJobDto toDto() {
+            return SyncJobDto.builder()
+                    .id(id)
+                    .weddingId(weddingId)
+                    .weddingCode(weddingCode)
+                    .status(status.get())
+                    .foldersScanned(foldersScanned.get())
+                    .filesFound(filesFound.get())
+                    .rowsWritten(rowsWritten.get())
+                    .result(result)
+                    .error(error)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.PJ.Project.service;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Primeste progresul unei sincronizari cu Google Drive (apelat din mai multe thread-uri)
+ */
+public interface SyncProgressListener {
+
+    SyncProgressListener NONE = new SyncProgressListener() {
+    };
+
+    /**
+     * Un folder a fost listat complet
+     * @param imageCount Numarul de imagini gasite direct in folder
+     */
+    default void folderScanned(int imageCount) {
+    }
+
+    /**
+     * Randuri inserate, actualizate sau sterse in tabela photos
+     * @param count Numarul de randuri scrise
+     */
+    default void rowsWritten(int count) {
+    }
+
+    /**
+     * Punct de oprire: opreste sincronizarea daca a fost anulata
+     * @throws CancellationException daca sincronizarea a fost anulata
+     */
+    default void checkCancelled() {
+    }
+}
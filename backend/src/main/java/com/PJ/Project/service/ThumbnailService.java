@@ -0,0 +1,341 @@
+package com.PJ.Project.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Genereaza variante JPEG redimensionate (thumbnail-uri) pentru imaginile din Google Drive.
+ * Originalul este decodat o singura data si toate latimile configurate sunt produse din el,
+ * pe un pool de workeri limitat; rezultatele sunt pastrate in cache-ul de imagini.
+ */
+@Service
+@Slf4j
+public class ThumbnailService {
+
+    private static final float JPEG_QUALITY = 0.85f;
+
+    private final ImageCacheService imageCacheService;
+    private final MetricsService metricsService;
+    private final List<Integer> widths;
+    private final ThreadPoolExecutor workers;
+
+    // generari in curs, ca cererile simultane pentru acelasi fisier sa nu decodeze originalul de doua ori
+    private final Map<String, CompletableFuture<Map<Integer, byte[]>>> inFlight = new ConcurrentHashMap<>();
+
+    public ThumbnailService(ImageCacheService imageCacheService, MetricsService metricsService,
+                            @Value("${fotoit.thumbnails.widths:400,1200,2048}") List<Integer> widths,
+                            @Value("${fotoit.thumbnails.workers:2}") int workerCount,
+                            @Value("${fotoit.thumbnails.queue-capacity:64}") int queueCapacity) {
+        this.imageCacheService = imageCacheService;
+        this.metricsService = metricsService;
+        this.widths = widths.stream().sorted().distinct().toList();
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "thumbnail-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    public List<Integer> getWidths() {
+        return widths;
+    }
+
+    /**
+     * Alege cea mai mica varianta care acopera latimea ceruta (sau cea mai mare disponibila)
+     * @param requestedWidth Latimea ceruta prin parametrul ?w= sau null
+     * @return Latimea variantei care va fi servita
+     */
+    public int resolveWidth(Integer requestedWidth) {
+        if (requestedWidth == null) {
+            return widths.get(0);
+        }
+        return widths.stream()
+                .filter(width -> width >= requestedWidth)
+                .findFirst()
+                .orElse(widths.get(widths.size() - 1));
+    }
+
+    /**
+     * URL-urile tuturor variantelor unei imagini, pentru srcset in frontend
+     * @param fileId ID-ul fisierului din Google Drive
+     * @return Latime -> URL proxy
+     */
+    public Map<Integer, String> getVariantUrls(String fileId) {
+        Map<Integer, String> urls = new LinkedHashMap<>();
+        for (int width : widths) {
+            urls.put(width, String.format("/api/gallery/thumbnail/%s?w=%d", fileId, width));
+        }
+        return urls;
+    }
+
+    /**
+     * Returneaza varianta redimensionata a imaginii, generand-o la prima cerere
+     * @param fileId ID-ul fisierului din Google Drive
+     * @param requestedWidth Latimea ceruta sau null pentru cea mai mica varianta
+     * @param originalLoader Sursa originalului (cache sau Google Drive)
+     * @return Continutul JPEG al variantei sau null daca imaginea nu poate fi redimensionata
+     * @throws IOException daca originalul nu poate fi incarcat
+     */
+    public byte[] getThumbnail(String fileId, Integer requestedWidth,
+                               ImageCacheService.ImageLoader originalLoader) throws IOException {
+        int width = resolveWidth(requestedWidth);
+
+        Optional<ImageCacheService.CachedFile> cached = imageCacheService.open(fileId, variantName(width));
+        if (cached.isPresent()) {
+            metricsService.count("image.cache.variant", "result", "hit", 1);
+            try (ImageCacheService.CachedFile variant = cached.get()) {
+                return Files.readAllBytes(variant.path());
+            }
+        }
+        metricsService.count("image.cache.variant", "result", "miss", 1);
+
+        CompletableFuture<Map<Integer, byte[]>> future;
+        try {
+            future = inFlight.computeIfAbsent(fileId, id -> CompletableFuture.supplyAsync(() -> {
+                try {
+                    byte[] original = originalLoader.load();
+                    return metricsService.timer("thumbnail.generate").record(() -> generateVariants(id, original));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, workers));
+        } catch (RejectedExecutionException e) {
+            log.warn("Coada de generare thumbnail-uri este plina, se serveste originalul pentru {}", fileId);
+            return null;
+        }
+        future.whenComplete((result, error) -> inFlight.remove(fileId, future));
+
+        try {
+            Map<Integer, byte[]> variants = future.get();
+            return variants != null ? variants.get(width) : null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Generarea thumbnail-ului a fost intrerupta: " + fileId, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw new IOException("Nu s-a putut genera thumbnail-ul: " + fileId, e.getCause());
+        }
+    }
+
+    /**
+     * Decodeaza originalul o singura data si produce toate variantele configurate
+     */
+    private Map<Integer, byte[]> generateVariants(String fileId, byte[] original) throws IOException {
+        if (original == null || original.length == 0) {
+            return null;
+        }
+
+        BufferedImage source = ImageIO.read(new ByteArrayInputStream(original));
+        if (source == null) {
+            log.debug("Formatul imaginii {} nu poate fi decodat, nu se genereaza thumbnail-uri", fileId);
+            return null;
+        }
+
+        int orientation = readExifOrientation(original);
+        String checksum = ImageCacheService.md5Hex(original);
+        Map<Integer, byte[]> variants = new LinkedHashMap<>();
+
+        // de la cea mai mare la cea mai mica, fiecare varianta pornind de la precedenta
+        BufferedImage current = source;
+        for (int i = widths.size() - 1; i >= 0; i--) {
+            int width = widths.get(i);
+            current = scaleToWidth(current, width, orientation >= 5);
+            byte[] jpeg = encodeJpeg(orient(current, orientation));
+            variants.put(width, jpeg);
+            try {
+                imageCacheService.put(fileId, variantName(width), checksum, jpeg);
+            } catch (IOException e) {
+                log.warn("Nu s-a putut salva in cache varianta w{} pentru {}", width, fileId, e);
+            }
+        }
+
+        log.debug("Generate {} variante pentru {} ({}x{})",
+                variants.size(), fileId, source.getWidth(), source.getHeight());
+        return variants;
+    }
+
+    private static String variantName(int width) {
+        return "w" + width;
+    }
+
+    /**
+     * Redimensioneaza imaginea la latimea afisata ceruta (fara marire), in pasi de cel mult 2x
+     * pentru o calitate apropiata de filtrele de tip area-average
+     */
+    private static BufferedImage scaleToWidth(BufferedImage source, int targetWidth, boolean rotated) {
+        int displayedWidth = rotated ? source.getHeight() : source.getWidth();
+        double factor = Math.min(1.0, (double) targetWidth / displayedWidth);
+        int finalWidth = Math.max(1, (int) Math.round(source.getWidth() * factor));
+        int finalHeight = Math.max(1, (int) Math.round(source.getHeight() * factor));
+
+        BufferedImage current = source;
+        do {
+            int width = Math.max(finalWidth, current.getWidth() / 2);
+            int height = Math.max(finalHeight, current.getHeight() / 2);
+            current = draw(current, width, height, null);
+        } while (current.getWidth() > finalWidth || current.getHeight() > finalHeight);
+        return current;
+    }
+
+    /**
+     * Aplica orientarea EXIF (1-8) astfel incat thumbnail-ul sa fie afisat la fel ca originalul
+     */
+    private static BufferedImage orient(BufferedImage image, int orientation) {
+        if (orientation <= 1 || orientation > 8) {
+            return image;
+        }
+
+        int w = image.getWidth();
+        int h = image.getHeight();
+        AffineTransform transform = new AffineTransform();
+        switch (orientation) {
+            case 2 -> { transform.translate(w, 0); transform.scale(-1, 1); }
+            case 3 -> { transform.translate(w, h); transform.rotate(Math.PI); }
+            case 4 -> { transform.translate(0, h); transform.scale(1, -1); }
+            case 5 -> { transform.rotate(Math.PI / 2); transform.scale(1, -1); }
+            case 6 -> { transform.translate(h, 0); transform.rotate(Math.PI / 2); }
+            case 7 -> { transform.translate(h, w); transform.rotate(Math.PI / 2); transform.scale(-1, 1); }
+            case 8 -> { transform.translate(0, w); transform.rotate(3 * Math.PI / 2); }
+            default -> { }
+        }
+
+        boolean swap = orientation >= 5;
+        return draw(image, swap ? h : w, swap ? w : h, transform);
+    }
+
+    // deseneaza imaginea pe un fundal alb RGB (JPEG nu suporta transparenta)
+    private static BufferedImage draw(BufferedImage source, int width, int height, AffineTransform transform) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            if (transform != null) {
+                g.drawImage(source, transform, null);
+            } else {
+                g.drawImage(source, 0, 0, width, height, null);
+            }
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private static byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(ios);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Citeste tag-ul Orientation (0x0112) din segmentul EXIF (APP1) al unui JPEG
+     * @return Valoarea orientarii (1-8) sau 1 daca nu exista
+     */
+    static int readExifOrientation(byte[] jpeg) {
+        if (jpeg.length < 4 || (jpeg[0] & 0xFF) != 0xFF || (jpeg[1] & 0xFF) != 0xD8) {
+            return 1;
+        }
+
+        int pos = 2;
+        while (pos + 4 <= jpeg.length && (jpeg[pos] & 0xFF) == 0xFF) {
+            int marker = jpeg[pos + 1] & 0xFF;
+            int length = readUnsignedShort(jpeg, pos + 2, false);
+            if (marker == 0xDA || marker == 0xD9) {
+                // inceputul datelor imaginii - nu mai urmeaza metadate
+                return 1;
+            }
+            int end = pos + 2 + length;
+            if (marker == 0xE1 && end <= jpeg.length && length >= 16
+                    && jpeg[pos + 4] == 'E' && jpeg[pos + 5] == 'x' && jpeg[pos + 6] == 'i' && jpeg[pos + 7] == 'f') {
+                return readTiffOrientation(jpeg, pos + 10, end);
+            }
+            pos = end;
+        }
+        return 1;
+    }
+
+    private static int readTiffOrientation(byte[] data, int tiffStart, int end) {
+        boolean littleEndian = data[tiffStart] == 'I' && data[tiffStart + 1] == 'I';
+        int ifd = tiffStart + readInt(data, tiffStart + 4, littleEndian);
+        if (ifd < tiffStart || ifd + 2 > end) {
+            return 1;
+        }
+
+        int count = readUnsignedShort(data, ifd, littleEndian);
+        for (int i = 0; i < count; i++) {
+            int entry = ifd + 2 + i * 12;
+            if (entry + 12 > end) {
+                break;
+            }
+            if (readUnsignedShort(data, entry, littleEndian) == 0x0112) {
+                return readUnsignedShort(data, entry + 8, littleEndian);
+            }
+        }
+        return 1;
+    }
+
+    private static int readUnsignedShort(byte[] data, int pos, boolean littleEndian) {
+        int b0 = data[pos] & 0xFF;
+        int b1 = data[pos + 1] & 0xFF;
+        return littleEndian ? (b1 << 8) | b0 : (b0 << 8) | b1;
+    }
+
+    private static int readInt(byte[] data, int pos, boolean littleEndian) {
+        int high = readUnsignedShort(data, littleEndian ? pos + 2 : pos, littleEndian);
+        int low = readUnsignedShort(data, littleEndian ? pos : pos + 2, littleEndian);
+        return (high << 16) | low;
+    }
+}
@@ -1,25 +1,45 @@
 package com.PJ.Project.service;
 
+import com.PJ.Project.dto.CompactGalleryDto;
 import com.PJ.Project.dto.GalleryResponseDto;
 import com.PJ.Project.dto.PhotoDto;
+import com.PJ.Project.dto.PhotoRowDto;
+import com.PJ.Project.dto.SyncResultDto;
 import com.PJ.Project.dto.WeddingDto;
 import com.PJ.Project.dto.WeddingSummaryDto;
 import com.PJ.Project.entity.EventType;
 import com.PJ.Project.entity.Photo;
 import com.PJ.Project.entity.Wedding;
+import com.PJ.Project.event.GalleryChangedEvent;
 import com.PJ.Project.exception.ResourceNotFoundException;
+import com.PJ.Project.repository.GalleryArchiveRepository;
 import com.PJ.Project.repository.PhotoRepository;
 import com.PJ.Project.repository.WeddingRepository;
+import com.PJ.Project.util.PhotoCursor;
+import com.google.api.client.util.DateTime;
 import com.google.api.services.drive.model.File;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Random;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,14 +48,36 @@ public class WeddingService {
 
     private final WeddingRepository weddingRepository;
     private final PhotoRepository photoRepository;
+    private final GalleryArchiveRepository galleryArchiveRepository;
+    private final ImageCacheService imageCacheService;
+    private final ThumbnailService thumbnailService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MetricsService metricsService;
+    private final TransactionTemplate transactionTemplate;
+    private static final int SAVE_CHUNK_SIZE = 500;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final String IMAGE_URL_FORMAT = "/api/gallery/image/%s";
+    private static final String THUMBNAIL_URL_FORMAT = "/api/gallery/thumbnail/%s";
+    private static final List<String> COMPACT_PHOTO_FIELDS = List.of("id", "fileId", "filename", "width", "height");
+
     private final Random random = new Random();
     
     @Autowired(required = false)
     private GoogleDriveService googleDriveService;
 
-    public WeddingService(WeddingRepository weddingRepository, PhotoRepository photoRepository) {
+    public WeddingService(WeddingRepository weddingRepository, PhotoRepository photoRepository,
+                          GalleryArchiveRepository galleryArchiveRepository,
+                          ImageCacheService imageCacheService, ThumbnailService thumbnailService,
+                          ApplicationEventPublisher eventPublisher, MetricsService metricsService,
+                          PlatformTransactionManager transactionManager) {
         this.weddingRepository = weddingRepository;
         this.photoRepository = photoRepository;
+        this.galleryArchiveRepository = galleryArchiveRepository;
+        this.imageCacheService = imageCacheService;
+        this.thumbnailService = thumbnailService;
+        this.eventPublisher = eventPublisher;
+        this.metricsService = metricsService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Transactional
@@ -55,66 +97,192 @@ public class WeddingService {
         return weddingRepository.save(wedding);
     }
 
-    @Transactional
-    public int syncPhotosFromGoogleDrive(Long weddingId) throws IOException {
+    /**
+     * Sincronizeaza pozele evenimentului cu folderul din Google Drive aplicand doar diferentele:
+     * pozele noi sunt inserate, cele modificate (nume, checksum sau data modificarii) actualizate,
+     * iar cele sterse din Drive eliminate. Pozele neschimbate isi pastreaza randul si ID-ul.
+     * Progresul este raportat listener-ului; la anulare tranzactia este anulata (rollback).
+     * Listarea din Drive (care poate dura minute) se face in afara tranzactiei, astfel incat
+     * conexiunea de scriere SQLite este ocupata doar pe durata comparatiei si a scrierii.
+     * @param weddingId ID-ul evenimentului
+     * @param listener Primeste progresul si poate opri sincronizarea
+     * @return Rezumatul modificarilor aplicate
+     * @throws IOException daca listarea din Google Drive esueaza
+     */
+    public SyncResultDto syncPhotosFromGoogleDrive(Long weddingId, SyncProgressListener listener) throws IOException {
         if (googleDriveService == null) {
             throw new IllegalStateException("Google Drive Service nu este configurat. Adauga fisierul de credentiale in application.properties");
         }
         
         Wedding wedding = getWeddingById(weddingId);
         
-        photoRepository.deleteByWedding(wedding);
-        
-        List<File> driveFiles = googleDriveService.listFilesInFolderRecursive(wedding.getGoogleFolderId());
-        
+        // durata fiecarei faze: listare Drive, curatare cache, comparatie, scriere, tranzactie (cu commit)
+        long syncStart = System.nanoTime();
+        List<File> driveFiles = googleDriveService.listFilesInFolderRecursive(wedding.getGoogleFolderId(), listener);
+        metricsService.timer("sync.phase", "phase", "list").recordSince(syncStart);
+        listener.checkCancelled();
         if (driveFiles.isEmpty()) {
             log.warn("Nu s-au gasit imagini in folderul {}", wedding.getGoogleFolderId());
-            return 0;
         }
         
-        List<Photo> photos = driveFiles.stream()
-                .map(driveFile -> {
-                    // Pentru imagini complete, folosim endpoint proxy in backend
-                    // Acest endpoint va servi imaginile cu autentificare
-                    String viewUrl = String.format("/api/gallery/image/%s", driveFile.getId());
-                    // Pentru thumbnail-uri, folosim un endpoint proxy in backend
-                    // Acest endpoint va servi thumbnail-urile cu autentificare
-                    String thumbnailUrl = String.format("/api/gallery/thumbnail/%s", driveFile.getId());
-                    
-                    log.debug("Foto: {} - URL: {} - Thumbnail: {}", 
-                            driveFile.getName(), viewUrl, thumbnailUrl);
-                    
-                    return Photo.builder()
-                            .filename(driveFile.getName())
-                            .url(viewUrl)
-                            .thumbnailUrl(thumbnailUrl)
-                            .fileId(driveFile.getId())
-                            .wedding(wedding)
-                            .build();
-                })
-                .collect(Collectors.toList());
+        // imaginile modificate in Drive de la ultima sincronizare nu mai sunt valide in cache
+        long evictStart = System.nanoTime();
+        imageCacheService.evictStale(driveFiles.stream()
+                .filter(driveFile -> driveFile.getMd5Checksum() != null)
+                .collect(Collectors.toMap(File::getId, File::getMd5Checksum, (first, second) -> first)));
+        metricsService.timer("sync.phase", "phase", "evict").recordSince(evictStart);
+        
+        long transactionStart = System.nanoTime();
+        SyncResultDto result = transactionTemplate.execute(status -> applySync(weddingId, driveFiles, listener));
+        metricsService.timer("sync.phase", "phase", "transaction").recordSince(transactionStart);
+        metricsService.timer("sync.total").recordSince(syncStart);
+        return result;
+    }
+
+    // compara listarea din Drive cu pozele salvate si scrie diferentele, intr-o singura tranzactie
+    private SyncResultDto applySync(Long weddingId, List<File> driveFiles, SyncProgressListener listener) {
+        long diffStart = System.nanoTime();
+        Wedding wedding = getWeddingById(weddingId);
+
+        // pozele existente, indexate dupa fileId; cele fara fileId (sau duplicate) vor fi sterse
+        Map<String, Photo> existing = new HashMap<>();
+        List<Photo> toDelete = new ArrayList<>();
+        for (Photo photo : photoRepository.findByWedding(wedding)) {
+            if (photo.getFileId() == null || existing.putIfAbsent(photo.getFileId(), photo) != null) {
+                toDelete.add(photo);
+            }
+        }
         
-        photoRepository.saveAll(photos);
-        log.info("Sincronizate {} poze pentru eveniment {}", photos.size(), weddingId);
-        return photos.size();
+        List<Photo> toInsert = new ArrayList<>();
+        List<Photo> toUpdate = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        int added = 0;
+        int updated = 0;
+        int unchanged = 0;
+        for (File driveFile : driveFiles) {
+            if (!seen.add(driveFile.getId())) {
+                continue;
+            }
+            Photo photo = existing.remove(driveFile.getId());
+            if (photo == null) {
+                toInsert.add(newPhoto(driveFile, wedding));
+                added++;
+            } else if (applyDriveMetadata(photo, driveFile)) {
+                toUpdate.add(photo);
+                updated++;
+            } else {
+                unchanged++;
+            }
+        }
+        toDelete.addAll(existing.values());
+        
+        SyncResultDto result = SyncResultDto.builder()
+                .added(added)
+                .updated(updated)
+                .removed(toDelete.size())
+                .unchanged(unchanged)
+                .build();
+        metricsService.timer("sync.phase", "phase", "diff").recordSince(diffStart);
+        
+        long writeStart = System.nanoTime();
+        if (result.hasChanges()) {
+            if (!toDelete.isEmpty()) {
+                photoRepository.deleteAllInBatch(toDelete);
+                listener.rowsWritten(toDelete.size());
+            }
+            // scrierea pe bucati permite raportarea progresului si anularea intre bucati;
+            // pozele noi merg ca batch JDBC, actualizarile prin Hibernate (batch-uite la flush)
+            for (int from = 0; from < toInsert.size(); from += SAVE_CHUNK_SIZE) {
+                listener.checkCancelled();
+                List<Photo> chunk = toInsert.subList(from, Math.min(from + SAVE_CHUNK_SIZE, toInsert.size()));
+                photoRepository.insertAll(chunk);
+                listener.rowsWritten(chunk.size());
+            }
+            for (int from = 0; from < toUpdate.size(); from += SAVE_CHUNK_SIZE) {
+                listener.checkCancelled();
+                List<Photo> chunk = toUpdate.subList(from, Math.min(from + SAVE_CHUNK_SIZE, toUpdate.size()));
+                photoRepository.saveAllAndFlush(chunk);
+                listener.rowsWritten(chunk.size());
+            }
+            wedding.setLastSyncedAt(LocalDateTime.now(ZoneOffset.UTC));
+            // arhiva pre-construita si celelalte derivate ale galeriei se actualizeaza dupa commit
+            eventPublisher.publishEvent(new GalleryChangedEvent(wedding.getId(), wedding.getCode(), false));
+        }
+        metricsService.timer("sync.phase", "phase", "write").recordSince(writeStart);
+        
+        log.info("Sincronizare eveniment {}: {} noi, {} actualizate, {} sterse, {} neschimbate",
+                weddingId, added, updated, toDelete.size(), unchanged);
+        return result;
+    }
+
+    private Photo newPhoto(File driveFile, Wedding wedding) {
+        // Pentru imagini complete, folosim endpoint proxy in backend
+        // Acest endpoint va servi imaginile cu autentificare
+        String viewUrl = String.format(IMAGE_URL_FORMAT, driveFile.getId());
+        // Pentru thumbnail-uri, folosim un endpoint proxy in backend
+        // Acest endpoint va servi thumbnail-urile cu autentificare
+        String thumbnailUrl = String.format(THUMBNAIL_URL_FORMAT, driveFile.getId());
+        
+        log.debug("Foto: {} - URL: {} - Thumbnail: {}", 
+                driveFile.getName(), viewUrl, thumbnailUrl);
+        
+        return Photo.builder()
+                .filename(driveFile.getName())
+                .url(viewUrl)
+                .thumbnailUrl(thumbnailUrl)
+                .fileId(driveFile.getId())
+                .md5Checksum(driveFile.getMd5Checksum())
+                .modifiedTime(toLocalDateTime(driveFile.getModifiedTime()))
+                .mimeType(driveFile.getMimeType())
+                .fileSize(driveFile.getSize())
+                .width(imageWidth(driveFile))
+                .height(imageHeight(driveFile))
+                .wedding(wedding)
+                .build();
     }
 
+    // actualizeaza poza existenta din metadatele Drive; returneaza true daca s-a schimbat ceva
+    // (pozele sincronizate inainte de adaugarea unei coloane sunt completate la urmatoarea sincronizare)
+    private static boolean applyDriveMetadata(Photo photo, File driveFile) {
+        LocalDateTime modifiedTime = toLocalDateTime(driveFile.getModifiedTime());
+        Integer width = imageWidth(driveFile);
+        Integer height = imageHeight(driveFile);
+        if (Objects.equals(photo.getFilename(), driveFile.getName())
+                && Objects.equals(photo.getMd5Checksum(), driveFile.getMd5Checksum())
+                && Objects.equals(photo.getModifiedTime(), modifiedTime)
+                && Objects.equals(photo.getMimeType(), driveFile.getMimeType())
+                && Objects.equals(photo.getFileSize(), driveFile.getSize())
+                && Objects.equals(photo.getWidth(), width)
+                && Objects.equals(photo.getHeight(), height)) {
+            return false;
+        }
+        photo.setFilename(driveFile.getName());
+        photo.setMd5Checksum(driveFile.getMd5Checksum());
+        photo.setModifiedTime(modifiedTime);
+        photo.setMimeType(driveFile.getMimeType());
+        photo.setFileSize(driveFile.getSize());
+        photo.setWidth(width);
+        photo.setHeight(height);
+        return true;
+    }
+
+    private static Integer imageWidth(File driveFile) {
+        return driveFile.getImageMediaMetadata() != null ? driveFile.getImageMediaMetadata().getWidth() : null;
+    }
+
+    private static Integer imageHeight(File driveFile) {
+        return driveFile.getImageMediaMetadata() != null ? driveFile.getImageMediaMetadata().getHeight() : null;
+    }
+
+    // Citirile galeriei ruleaza read-only si proiecteaza direct in PhotoRowDto: fara entitati Photo,
+    // fara proxy-uri Wedding si fara snapshot-uri pentru dirty checking
+    @Transactional(readOnly = true)
     public GalleryResponseDto getGalleryByCode(String code) {
         Wedding wedding = getWeddingByCode(code);
         
-        List<Photo> photos = photoRepository.findByWedding(wedding);
-        
-        List<PhotoDto> photoDtos = photos.stream()
-                .map(photo -> PhotoDto.builder()
-                        .id(photo.getId())
-                        .filename(photo.getFilename())
-                        .url(photo.getUrl())
-                        .thumbnailUrl(photo.getThumbnailUrl())
-                        .weddingId(wedding.getId())
-                        .fileId(photo.getFileId())
-                        .createdAt(photo.getCreatedAt())
-                        .build())
-                .collect(Collectors.toList());
+        List<PhotoRowDto> photos = photoRepository.findRowsByWeddingId(wedding.getId());
+        
+        List<PhotoDto> photoDtos = toPhotoDtos(photos, wedding);
         
         return GalleryResponseDto.builder()
                 .code(wedding.getCode())
@@ -126,23 +294,14 @@ public class WeddingService {
                 .build();
     }
 
+    @Transactional(readOnly = true)
     public GalleryResponseDto getGalleryByCodePaginated(String code, int page, int size) {
         Wedding wedding = getWeddingByCode(code);
         
-        org.springframework.data.domain.Pageable pageable = org.springframework.data.domain.PageRequest.of(page, size);
-        org.springframework.data.domain.Page<Photo> photoPage = photoRepository.findByWedding(wedding, pageable);
-        
-        List<PhotoDto> photoDtos = photoPage.getContent().stream()
-                .map(photo -> PhotoDto.builder()
-                        .id(photo.getId())
-                        .filename(photo.getFilename())
-                        .url(photo.getUrl())
-                        .thumbnailUrl(photo.getThumbnailUrl())
-                        .weddingId(wedding.getId())
-                        .fileId(photo.getFileId())
-                        .createdAt(photo.getCreatedAt())
-                        .build())
-                .collect(Collectors.toList());
+        org.springframework.data.domain.Pageable pageable = org.springframework.data.domain.PageRequest.of(page, clampPageSize(size));
+        org.springframework.data.domain.Page<PhotoRowDto> photoPage = photoRepository.findRowsByWeddingId(wedding.getId(), pageable);
+        
+        List<PhotoDto> photoDtos = toPhotoDtos(photoPage.getContent(), wedding);
         
         return GalleryResponseDto.builder()
                 .code(wedding.getCode())
@@ -154,6 +313,150 @@ public class WeddingService {
                 .build();
     }
 
+    /**
+     * Pagina de poze dupa cursor (keyset pe id): costul unei pagini nu depinde de pozitia ei in galerie
+     * @param code Codul galeriei
+     * @param cursor Cursorul primit in nextCursor la pagina anterioara; null sau gol pentru prima pagina
+     * @param size Numarul de poze din pagina
+     * @return Galeria cu pozele paginii si cursorul paginii urmatoare
+     */
+    @Transactional(readOnly = true)
+    public GalleryResponseDto getGalleryByCursor(String code, String cursor, int size) {
+        return getPhotoPage(getWeddingByCode(code), cursor, size);
+    }
+
+    /**
+     * Pagina de poze a unui eveniment pentru grila din admin (aceeasi paginare keyset ca galeria publica)
+     * @param weddingId ID-ul evenimentului
+     * @param cursor Cursorul paginii anterioare; null sau gol pentru prima pagina
+     * @param size Numarul de poze din pagina
+     * @return Pozele paginii si cursorul paginii urmatoare
+     */
+    @Transactional(readOnly = true)
+    public GalleryResponseDto getPhotoPage(Long weddingId, String cursor, int size) {
+        return getPhotoPage(getWeddingById(weddingId), cursor, size);
+    }
+
+    @Transactional(readOnly = true)
+    public long countPhotos(Long weddingId) {
+        return photoRepository.countByWeddingId(weddingId);
+    }
+
+    // numarul total de poze (COUNT) se calculeaza doar pentru prima pagina; paginile urmatoare au totalPhotos null
+    private GalleryResponseDto getPhotoPage(Wedding wedding, String cursor, int size) {
+        RowPage page = loadRowPage(wedding, cursor, size);
+
+        List<PhotoDto> photoDtos = toPhotoDtos(page.rows(), wedding);
+
+        return GalleryResponseDto.builder()
+                .code(wedding.getCode())
+                .eventType(wedding.getEventType())
+                .name(wedding.getName())
+                .description(wedding.getDescription())
+                .photos(photoDtos)
+                .totalPhotos(page.first() ? (int) photoRepository.countByWeddingId(wedding.getId()) : null)
+                .nextCursor(page.nextCursor())
+                .build();
+    }
+
+    /**
+     * Galeria in reprezentarea compacta (v2): toate pozele sau, cu cursor, o pagina keyset
+     * (numarul total de poze doar pe prima pagina)
+     * @param code Codul galeriei
+     * @param cursor Cursorul paginii anterioare (gol pentru prima pagina) sau null pentru toate pozele
+     * @param size Numarul de poze din pagina (folosit doar cu cursor)
+     * @return Galeria compacta
+     */
+    @Transactional(readOnly = true)
+    public CompactGalleryDto getCompactGallery(String code, String cursor, int size) {
+        Wedding wedding = getWeddingByCode(code);
+        List<PhotoRowDto> rows;
+        String nextCursor = null;
+        Integer totalPhotos = null;
+        if (cursor == null) {
+            rows = photoRepository.findRowsByWeddingId(wedding.getId());
+            totalPhotos = rows.size();
+        } else {
+            RowPage page = loadRowPage(wedding, cursor, size);
+            rows = page.rows();
+            nextCursor = page.nextCursor();
+            if (page.first()) {
+                totalPhotos = (int) photoRepository.countByWeddingId(wedding.getId());
+            }
+        }
+
+        List<Object[]> photos = rows.stream()
+                .map(photo -> new Object[] {photo.id(), photo.fileId(), photo.filename(), photo.width(), photo.height()})
+                .collect(Collectors.toList());
+
+        return CompactGalleryDto.builder()
+                .version(2)
+                .weddingId(wedding.getId())
+                .code(wedding.getCode())
+                .eventType(wedding.getEventType())
+                .name(wedding.getName())
+                .description(wedding.getDescription())
+                .totalPhotos(totalPhotos)
+                .nextCursor(nextCursor)
+                .imageUrlTemplate(String.format(IMAGE_URL_FORMAT, "{fileId}"))
+                .thumbnailUrlTemplate(String.format(THUMBNAIL_URL_FORMAT, "{fileId}"))
+                .variantUrlTemplate(String.format(THUMBNAIL_URL_FORMAT, "{fileId}") + "?w={w}")
+                .variantWidths(thumbnailService.getWidths())
+                .photoFields(COMPACT_PHOTO_FIELDS)
+                .photos(photos)
+                .build();
+    }
+
+    private RowPage loadRowPage(Wedding wedding, String cursor, int size) {
+        Long afterId = PhotoCursor.decode(cursor);
+        int pageSize = clampPageSize(size);
+
+        // se cere o poza in plus ca sa stim daca exista pagina urmatoare
+        List<PhotoRowDto> photos = photoRepository.findRowsByWeddingIdAfter(wedding.getId(),
+                afterId != null ? afterId : 0L, Limit.of(pageSize + 1));
+
+        String nextCursor = null;
+        if (photos.size() > pageSize) {
+            photos = photos.subList(0, pageSize);
+            nextCursor = PhotoCursor.encode(photos.get(pageSize - 1).id());
+        }
+        return new RowPage(photos, nextCursor, afterId == null);
+    }
+
+    /**
+     * Dimensiunea efectiva a unei pagini cerute de client, limitata la intervalul [1, MAX_PAGE_SIZE]
+     * @param size Dimensiunea ceruta
+     * @return Dimensiunea folosita la interogare
+     */
+    public static int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    // first: prima pagina (fara cursor), singura pentru care se calculeaza numarul total de poze
+    private record RowPage(List<PhotoRowDto> rows, String nextCursor, boolean first) {
+    }
+
+    private List<PhotoDto> toPhotoDtos(List<PhotoRowDto> photos, Wedding wedding) {
+        return photos.stream()
+                .map(photo -> toPhotoDto(photo, wedding))
+                .collect(Collectors.toList());
+    }
+
+    private PhotoDto toPhotoDto(PhotoRowDto photo, Wedding wedding) {
+        return PhotoDto.builder()
+                .id(photo.id())
+                .filename(photo.filename())
+                .url(photo.url())
+                .thumbnailUrl(photo.thumbnailUrl())
+                .variants(photo.fileId() != null ? thumbnailService.getVariantUrls(photo.fileId()) : null)
+                .weddingId(wedding.getId())
+                .fileId(photo.fileId())
+                .width(photo.width())
+                .height(photo.height())
+                .createdAt(photo.createdAt())
+                .build();
+    }
+
     public Wedding getWeddingById(Long id) {
         return weddingRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Wedding", "id", id));
@@ -166,17 +469,8 @@ public class WeddingService {
 
     @Transactional(readOnly = true)
     public List<WeddingSummaryDto> getAllWeddingsSummary() {
-        List<Wedding> weddings = weddingRepository.findAll();
-        return weddings.stream()
-                .map(wedding -> WeddingSummaryDto.builder()
-                        .id(wedding.getId())
-                        .code(wedding.getCode())
-                        .eventType(wedding.getEventType())
-                        .name(wedding.getName())
-                        .description(wedding.getDescription())
-                        .photoCount(photoRepository.countByWedding(wedding))
-                        .build())
-                .collect(Collectors.toList());
+        // un singur query grupat, indiferent de numarul de evenimente
+        return weddingRepository.findAllSummaries();
     }
     
     @Transactional(readOnly = true)
@@ -187,7 +481,15 @@ public class WeddingService {
     @Transactional
     public void deleteWedding(Long id) {
         Wedding wedding = getWeddingById(id);
+        galleryArchiveRepository.deleteByWedding(wedding);
         weddingRepository.delete(wedding);
+        eventPublisher.publishEvent(new GalleryChangedEvent(wedding.getId(), wedding.getCode(), true));
+    }
+
+    private static LocalDateTime toLocalDateTime(DateTime dateTime) {
+        return dateTime != null
+                ? LocalDateTime.ofInstant(Instant.ofEpochMilli(dateTime.getValue()), ZoneOffset.UTC)
+                : null;
     }
 
     private String generateUniqueCode() {
@@ -0,0 +1,303 @@
+package com.PJ.Project.service;
+
+import com.PJ.Project.entity.Photo;
+import com.PJ.Project.repository.PhotoRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Construieste arhive ZIP cu imagini direct intr-un stream de iesire, fara a tine arhiva in memorie.
+ * Urmatoarele fisiere sunt descarcate in paralel intr-o fereastra limitata. Din cache-ul local fisierele
+ * sunt copiate direct din fisier (tinute pe disc pana la scriere), fara copie in memorie; fara cache,
+ * memoria folosita depinde doar de dimensiunea ferestrei, nu de numarul de fisiere din arhiva.
+ */
+@Service
+@Slf4j
+public class ZipArchiveService {
+
+    // formate deja comprimate - stocate fara deflate, ca sa nu irosim CPU
+    private static final Set<String> COMPRESSED_EXTENSIONS = Set.of("jpg", "jpeg", "png", "gif", "webp", "heic");
+    private static final int CRC_BUFFER_SIZE = 64 * 1024;
+
+    private final ImageProxyService imageProxyService;
+    private final PhotoRepository photoRepository;
+    private final MetricsService metricsService;
+    private final int prefetchWindow;
+
+    @Autowired(required = false)
+    private GoogleDriveService googleDriveService;
+
+    public ZipArchiveService(ImageProxyService imageProxyService,
+                             PhotoRepository photoRepository,
+                             MetricsService metricsService,
+                             @Value("${fotoit.zip.prefetch-window:4}") int prefetchWindow) {
+        this.imageProxyService = imageProxyService;
+        this.photoRepository = photoRepository;
+        this.metricsService = metricsService;
+        this.prefetchWindow = Math.max(1, prefetchWindow);
+    }
+
+    /**
+     * Scrie arhiva ZIP cu fisierele cerute in stream-ul de iesire, pe masura ce sunt descarcate.
+     * Fisierele care nu pot fi descarcate sunt omise. Stream-ul de iesire nu este inchis.
+     * @param fileIds ID-urile fisierelor din Google Drive, in ordinea din arhiva
+     * @param out Stream-ul in care se scrie arhiva
+     * @return Numarul de fisiere adaugate in arhiva
+     * @throws IOException daca scrierea in stream esueaza (ex: clientul a inchis conexiunea)
+     */
+    public int writeZip(List<String> fileIds, OutputStream out) throws IOException {
+        return writeArchive(fileIds, out).written();
+    }
+
+    /**
+     * La fel ca writeZip, dar raporteaza si fisierele omise (ex: pentru arhivele pre-construite,
+     * care nu trebuie marcate complete daca lipsesc poze)
+     * @param fileIds ID-urile fisierelor din Google Drive, in ordinea din arhiva
+     * @param out Stream-ul in care se scrie arhiva
+     * @return Numarul de fisiere adaugate si ID-urile celor omise
+     * @throws IOException daca scrierea in stream esueaza (ex: clientul a inchis conexiunea)
+     */
+    public ZipResult writeArchive(List<String> fileIds, OutputStream out) throws IOException {
+        ZipResult result = metricsService.timer("zip.write").record(() -> writeEntries(fileIds, out));
+        metricsService.count("zip.entries", null, null, result.written());
+        if (!result.skipped().isEmpty()) {
+            metricsService.count("zip.skipped", null, null, result.skipped().size());
+        }
+        return result;
+    }
+
+    private ZipResult writeEntries(List<String> fileIds, OutputStream out) throws IOException {
+        Map<String, String> filenames = resolveFilenames(fileIds);
+        Set<String> usedNames = new HashSet<>();
+        Deque<PendingItem> window = new ArrayDeque<>();
+        List<String> skipped = new ArrayList<>();
+        // fisierele pregatite si nescrise inca; cele ramase la o eroare sunt eliberate la final
+        Set<ZipItem> prepared = ConcurrentHashMap.newKeySet();
+        Iterator<String> pending = fileIds.iterator();
+        int count = 0;
+
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            ZipOutputStream zos = new ZipOutputStream(out);
+            while (window.size() < prefetchWindow && pending.hasNext()) {
+                window.add(prefetch(executor, pending.next(), filenames, prepared));
+            }
+
+            while (!window.isEmpty()) {
+                PendingItem next = window.poll();
+                // fereastra ramane plina cat timp fisierul curent este scris
+                if (pending.hasNext()) {
+                    window.add(prefetch(executor, pending.next(), filenames, prepared));
+                }
+
+                ZipItem item = await(next.item());
+                if (item == null) {
+                    skipped.add(next.fileId());
+                } else {
+                    try {
+                        writeEntry(zos, item, usedNames);
+                    } finally {
+                        prepared.remove(item);
+                        item.close();
+                    }
+                    count++;
+                }
+            }
+
+            zos.finish();
+            zos.flush();
+            return new ZipResult(count, skipped);
+        } finally {
+            window.forEach(next -> next.item().cancel(true));
+            executor.shutdownNow();
+            // asteapta descarcarile intrerupte, ca niciun fisier din cache sa nu ramana deschis
+            executor.close();
+            prepared.forEach(ZipItem::close);
+        }
+    }
+
+    // numele fisierelor vin din tabela photos; cele lipsa sunt cerute de la Drive intr-un singur batch
+    private Map<String, String> resolveFilenames(List<String> fileIds) {
+        Map<String, String> filenames = new HashMap<>();
+        for (Photo photo : photoRepository.findByFileIdIn(fileIds)) {
+            filenames.putIfAbsent(photo.getFileId(), photo.getFilename());
+        }
+
+        List<String> missing = fileIds.stream().filter(fileId -> !filenames.containsKey(fileId)).toList();
+        if (!missing.isEmpty() && googleDriveService != null) {
+            try {
+                googleDriveService.getFilesMetadata(missing)
+                        .forEach((fileId, file) -> filenames.put(fileId, file.getName()));
+            } catch (IOException e) {
+                log.warn("Nu s-au putut obtine numele pentru {} fisiere din ZIP", missing.size(), e);
+            }
+        }
+        return filenames;
+    }
+
+    private PendingItem prefetch(ExecutorService executor, String fileId, Map<String, String> filenames,
+                                 Set<ZipItem> prepared) {
+        return new PendingItem(fileId, executor.submit(() -> {
+            try {
+                String filename = filenames.get(fileId);
+                if (filename == null || filename.isEmpty()) {
+                    filename = "image_" + fileId + ".jpg";
+                }
+                ZipItem item = load(fileId, filename);
+                if (item != null) {
+                    prepared.add(item);
+                }
+                return item;
+            } catch (Exception e) {
+                log.warn("Nu s-a putut adauga fisierul {} in ZIP", fileId, e);
+                return null;
+            }
+        }));
+    }
+
+    // din cache: fisierul ramane deschis pana la scrierea intrarii; fara cache: continutul in memorie
+    private ZipItem load(String fileId, String filename) throws IOException {
+        // CRC-ul (si dimensiunea) sunt necesare dinainte doar pentru intrarile stocate fara deflate
+        boolean stored = isCompressed(filename);
+        Optional<ImageCacheService.CachedFile> cached = imageProxyService.openCachedOriginal(fileId);
+        if (cached.isPresent()) {
+            ImageCacheService.CachedFile file = cached.get();
+            try {
+                if (file.size() == 0) {
+                    file.close();
+                    return null;
+                }
+                return new ZipItem(filename, file.size(), stored ? crc(file.path()) : 0, null, file);
+            } catch (IOException | RuntimeException e) {
+                file.close();
+                throw e;
+            }
+        }
+
+        byte[] content = imageProxyService.loadImage(fileId);
+        if (content == null || content.length == 0) {
+            return null;
+        }
+        long crc = 0;
+        if (stored) {
+            CRC32 checksum = new CRC32();
+            checksum.update(content);
+            crc = checksum.getValue();
+        }
+        return new ZipItem(filename, content.length, crc, content, null);
+    }
+
+    private static long crc(Path path) throws IOException {
+        CRC32 checksum = new CRC32();
+        byte[] buffer = new byte[CRC_BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(path)) {
+            for (int read; (read = in.read(buffer)) > 0; ) {
+                checksum.update(buffer, 0, read);
+            }
+        }
+        return checksum.getValue();
+    }
+
+    private ZipItem await(Future<ZipItem> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Crearea arhivei ZIP a fost intrerupta", e);
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    private void writeEntry(ZipOutputStream zos, ZipItem item, Set<String> usedNames) throws IOException {
+        ZipEntry entry = new ZipEntry(uniqueName(item.filename(), usedNames));
+        if (isCompressed(item.filename())) {
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(item.size());
+            entry.setCompressedSize(item.size());
+            entry.setCrc(item.crc());
+        }
+        zos.putNextEntry(entry);
+        if (item.content() != null) {
+            zos.write(item.content());
+        } else {
+            Files.copy(item.file().path(), zos);
+        }
+        zos.closeEntry();
+    }
+
+    // doua poze cu acelasi nume in subfoldere diferite ar produce o intrare duplicata
+    private static String uniqueName(String filename, Set<String> usedNames) {
+        String name = filename;
+        int dot = filename.lastIndexOf('.');
+        String base = dot > 0 ? filename.substring(0, dot) : filename;
+        String extension = dot > 0 ? filename.substring(dot) : "";
+        for (int i = 2; !usedNames.add(name); i++) {
+            name = base + " (" + i + ")" + extension;
+        }
+        return name;
+    }
+
+    private static boolean isCompressed(String filename) {
+        int dot = filename.lastIndexOf('.');
+        return dot > 0 && COMPRESSED_EXTENSIONS.contains(filename.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Rezultatul scrierii unei arhive
+     * @param written Numarul de fisiere adaugate
+     * @param skipped ID-urile fisierelor omise (nedescarcabile), in ordinea din arhiva
+     */
+    public record ZipResult(int written, List<String> skipped) {
+    }
+
+    private record PendingItem(String fileId, Future<ZipItem> item) {
+    }
+
+    /**
+     * Un fisier pregatit pentru arhiva
+     * @param filename Numele din arhiva (inainte de deduplicare)
+     * @param size Dimensiunea in bytes
+     * @param crc CRC32 al continutului (doar pentru intrarile stocate, altfel 0)
+     * @param content Continutul in memorie (fara cache) sau null
+     * @param file Citirea din cache care tine fisierul pe disc, sau null
+     */
+    private record ZipItem(String filename, long size, long crc, byte[] content, ImageCacheService.CachedFile file)
+            implements Closeable {
+
+        @Override
+        public void close() {
+            if (file != null) {
+                file.close();
+            }
+        }
+    }
+}
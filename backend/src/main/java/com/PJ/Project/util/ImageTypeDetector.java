@@ -0,0 +1,63 @@
+package com.PJ.Project.util;
+
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Detecteaza tipul imaginii din primii bytes ai continutului (magic bytes)
+ */
+public final class ImageTypeDetector {
+
+    // numarul de bytes necesari pentru toate formatele recunoscute (WebP are nevoie de 12)
+    public static final int HEADER_LENGTH = 12;
+
+    private static final MediaType IMAGE_WEBP = MediaType.parseMediaType("image/webp");
+
+    private ImageTypeDetector() {
+    }
+
+    /**
+     * Detecteaza tipul imaginii bazat pe header-urile magice (magic bytes)
+     */
+    public static MediaType detectImageType(byte[] imageBytes) {
+        if (imageBytes == null || imageBytes.length < 4) {
+            return MediaType.IMAGE_JPEG;
+        }
+        
+        // Verifica magic bytes pentru diferite formate
+        // JPEG: FF D8 FF
+        if (imageBytes[0] == (byte)0xFF && imageBytes[1] == (byte)0xD8 && imageBytes[2] == (byte)0xFF) {
+            return MediaType.IMAGE_JPEG;
+        }
+        // PNG: 89 50 4E 47
+        if (imageBytes[0] == (byte)0x89 && imageBytes[1] == 0x50 && imageBytes[2] == 0x4E && imageBytes[3] == 0x47) {
+            return MediaType.IMAGE_PNG;
+        }
+        // GIF: 47 49 46 38
+        if (imageBytes[0] == 0x47 && imageBytes[1] == 0x49 && imageBytes[2] == 0x46 && imageBytes[3] == 0x38) {
+            return MediaType.IMAGE_GIF;
+        }
+        // WebP: RIFF...WEBP
+        if (imageBytes.length >= 12 && 
+            imageBytes[0] == 0x52 && imageBytes[1] == 0x49 && imageBytes[2] == 0x46 && imageBytes[3] == 0x46 &&
+            imageBytes[8] == 0x57 && imageBytes[9] == 0x45 && imageBytes[10] == 0x42 && imageBytes[11] == 0x50) {
+            return IMAGE_WEBP;
+        }
+        
+        // Default la JPEG daca nu se poate detecta
+        return MediaType.IMAGE_JPEG;
+    }
+
+    /**
+     * Detecteaza tipul unei imagini de pe disc citind doar header-ul
+     */
+    public static MediaType detectImageType(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            return detectImageType(in.readNBytes(HEADER_LENGTH));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.PJ.Project.util;
+
+import com.PJ.Project.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Cursor opac pentru paginarea keyset a pozelor: codifica ID-ul ultimei poze returnate.
+ * Clientul trebuie sa-l trimita inapoi neschimbat; formatul intern poate evolua (prefix de versiune).
+ */
+public final class PhotoCursor {
+
+    private static final String PREFIX = "p1:";
+
+    private PhotoCursor() {
+    }
+
+    /**
+     * @param lastPhotoId ID-ul ultimei poze din pagina curenta
+     * @return Cursorul pentru pagina urmatoare
+     */
+    public static String encode(long lastPhotoId) {
+        byte[] raw = (PREFIX + lastPhotoId).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    /**
+     * @param cursor Cursorul primit de la client; gol sau null pentru prima pagina
+     * @return ID-ul dupa care continua pagina sau null pentru prima pagina
+     * @throws InvalidCursorException daca cursorul nu a fost emis de server
+     */
+    public static Long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) {
+                throw new InvalidCursorException(cursor);
+            }
+            long lastPhotoId = Long.parseLong(raw.substring(PREFIX.length()));
+            // doar forma emisa de encode (fara semn, zerouri in fata sau padding): altfel a fost modificat
+            if (lastPhotoId < 0 || !encode(lastPhotoId).equals(cursor)) {
+                throw new InvalidCursorException(cursor);
+            }
+            return lastPhotoId;
+        } catch (IllegalArgumentException e) {
+            // include NumberFormatException
+            throw new InvalidCursorException(cursor);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.PJ.Project.config;
+
+import com.PJ.Project.entity.EventType;
+import com.PJ.Project.entity.Photo;
+import com.PJ.Project.entity.Wedding;
+import com.PJ.Project.repository.PhotoRepository;
+import com.PJ.Project.repository.WeddingRepository;
+import com.PJ.Project.service.ImageProxyService;
+import com.PJ.Project.service.WeddingService;
+import com.google.api.services.drive.Drive;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ * Citirile galeriei si ale proxy-ului de imagini trebuie sa ruleze pe pool-ul de citire: cu o tranzactie
+ * de scriere deschisa (conexiunea unica de scriere ocupata, ca in timpul unei sincronizari) ele se termina
+ * imediat si vad ultima stare confirmata (commit) a bazei.
+ */
+@SpringBootTest(properties = {
+        "fotoit.archive.build-on-sync=false",
+        "spring.jpa.hibernate.ddl-auto=create",
+        "fotoit.sqlite.reader-pool-size=2"
+})
+class SqliteReadRoutingTest {
+
+    private static final Duration READ_TIMEOUT = Duration.ofSeconds(5);
+
+    @TempDir
+    static Path tempDir;
+
+    @MockitoBean
+    private Drive drive;
+
+    @Autowired
+    private WeddingRepository weddingRepository;
+
+    @Autowired
+    private PhotoRepository photoRepository;
+
+    @Autowired
+    private WeddingService weddingService;
+
+    @Autowired
+    private ImageProxyService imageProxyService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Wedding wedding;
+
+    @DynamicPropertySource
+    static void sqlite(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + tempDir.resolve("routing.db"));
+        registry.add("fotoit.cache.dir", () -> tempDir.resolve("images").toString());
+        registry.add("fotoit.archive.dir", () -> tempDir.resolve("archives").toString());
+    }
+
+    @BeforeEach
+    void createGallery() {
+        wedding = weddingRepository.save(Wedding.builder()
+                .code("ROUTE1")
+                .googleFolderId("folder")
+                .eventType(EventType.WEDDING)
+                .name("Inainte")
+                .build());
+        photoRepository.insertAll(List.of(Photo.builder()
+                .filename("IMG_0001.jpg")
+                .url("/api/gallery/image/file-1")
+                .thumbnailUrl("/api/gallery/thumbnail/file-1")
+                .fileId("file-1")
+                .md5Checksum("abc")
+                .modifiedTime(LocalDateTime.of(2026, 1, 1, 12, 0))
+                .mimeType("image/jpeg")
+                .wedding(wedding)
+                .build()));
+    }
+
+    @AfterEach
+    void deleteGallery() {
+        weddingService.deleteWedding(wedding.getId());
+    }
+
+    @Test
+    void readsCompleteWhileWriteTransactionIsOpen() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    Wedding locked = weddingRepository.findById(wedding.getId()).orElseThrow();
+                    locked.setName("In timpul sincronizarii");
+                    weddingRepository.saveAndFlush(locked);
+                    writing.countDown();
+                    try {
+                        release.await(30, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+        try {
+            assertThat(writing.await(10, TimeUnit.SECONDS)).isTrue();
+
+            assertTimeoutPreemptively(READ_TIMEOUT, () -> {
+                assertThat(weddingService.getWeddingByCode("ROUTE1").getName()).isEqualTo("Inainte");
+                assertThat(weddingService.getGalleryByCode("ROUTE1").getPhotos()).hasSize(1);
+                assertThat(photoRepository.findByFileIdIn(List.of("file-1"))).hasSize(1);
+                assertThat(imageProxyService.getValidators("file-1", null)).isPresent();
+            });
+        } finally {
+            release.countDown();
+            writer.get(10, TimeUnit.SECONDS);
+        }
+        assertThat(weddingService.getWeddingByCode("ROUTE1").getName()).isEqualTo("In timpul sincronizarii");
+    }
+}
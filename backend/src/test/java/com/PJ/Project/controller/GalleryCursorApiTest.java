@@ -0,0 +1,120 @@
+package com.PJ.Project.controller;
+
+import com.PJ.Project.entity.EventType;
+import com.PJ.Project.entity.Wedding;
+import com.PJ.Project.repository.WeddingRepository;
+import com.PJ.Project.service.WeddingService;
+import com.PJ.Project.util.PhotoCursor;
+import com.google.api.services.drive.Drive;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Base64;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Un cursor primit de la client care nu a fost emis de server (modificat, alta versiune, alt encoding)
+ * este o cerere gresita: raspunsul este 400 cu mesaj, nu 500.
+ */
+@SpringBootTest(properties = {
+        "fotoit.archive.build-on-sync=false",
+        "spring.jpa.hibernate.ddl-auto=create"
+})
+@AutoConfigureMockMvc
+class GalleryCursorApiTest {
+
+    private static final String CODE = "CURSOR1";
+
+    @TempDir
+    static Path tempDir;
+
+    @MockitoBean
+    private Drive drive;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private WeddingRepository weddingRepository;
+
+    @Autowired
+    private WeddingService weddingService;
+
+    private Wedding wedding;
+
+    @DynamicPropertySource
+    static void sqlite(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + tempDir.resolve("cursor.db"));
+        registry.add("fotoit.cache.dir", () -> tempDir.resolve("images").toString());
+        registry.add("fotoit.archive.dir", () -> tempDir.resolve("archives").toString());
+    }
+
+    @BeforeEach
+    void createGallery() {
+        wedding = weddingRepository.save(Wedding.builder()
+                .code(CODE)
+                .googleFolderId("cursor-folder")
+                .eventType(EventType.WEDDING)
+                .name("Cursor")
+                .build());
+    }
+
+    @AfterEach
+    void deleteGallery() {
+        weddingService.deleteWedding(wedding.getId());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/api/gallery/" + CODE, "/api/v2/gallery/" + CODE})
+    void acceptsIssuedCursor(String path) throws Exception {
+        mockMvc.perform(get(path).param("cursor", PhotoCursor.encode(42)).param("size", "10"))
+                .andExpect(status().isOk());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/api/gallery/" + CODE, "/api/v2/gallery/" + CODE})
+    void rejectsTamperedCursor(String path) throws Exception {
+        expectBadRequest(path, base64Url("p1:42abc"));
+        expectBadRequest(path, base64Url("p1:-42"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/api/gallery/" + CODE, "/api/v2/gallery/" + CODE})
+    void rejectsOtherCursorVersion(String path) throws Exception {
+        expectBadRequest(path, base64Url("p2:42"));
+        expectBadRequest(path, base64Url("42"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/api/gallery/" + CODE, "/api/v2/gallery/" + CODE})
+    void rejectsNonBase64UrlCursor(String path) throws Exception {
+        expectBadRequest(path, "cDE6NDI+");
+        expectBadRequest(path, "not a cursor");
+    }
+
+    private void expectBadRequest(String path, String cursor) throws Exception {
+        mockMvc.perform(get(path).param("cursor", cursor).param("size", "10"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.message").exists());
+    }
+
+    private static String base64Url(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
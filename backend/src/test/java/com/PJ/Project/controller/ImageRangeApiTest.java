@@ -0,0 +1,113 @@
+package com.PJ.Project.controller;
+
+import com.PJ.Project.service.GoogleDriveService;
+import com.google.api.services.drive.Drive;
+import com.google.api.services.drive.model.File;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Originalul servit direct din Google Drive (fara cache): cu dimensiune cunoscuta un Range primeste 206,
+ * iar cand Drive nu raporteaza dimensiunea Range este ignorat si raspunsul este tot fisierul (200), nu 416.
+ */
+@SpringBootTest(properties = {
+        "fotoit.archive.build-on-sync=false",
+        "fotoit.cache.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create"
+})
+@AutoConfigureMockMvc
+class ImageRangeApiTest {
+
+    private static final byte[] CONTENT = new byte[1000];
+
+    static {
+        Arrays.fill(CONTENT, (byte) 7);
+    }
+
+    @TempDir
+    static Path tempDir;
+
+    @MockitoBean
+    private Drive drive;
+
+    @MockitoBean
+    private GoogleDriveService googleDriveService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @DynamicPropertySource
+    static void sqlite(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + tempDir.resolve("range.db"));
+        registry.add("fotoit.cache.dir", () -> tempDir.resolve("images").toString());
+        registry.add("fotoit.archive.dir", () -> tempDir.resolve("archives").toString());
+    }
+
+    @Test
+    void unknownSizeIgnoresRangeOnImage() throws Exception {
+        driveFile("unknown", null);
+
+        mockMvc.perform(get("/api/gallery/image/unknown").header(HttpHeaders.RANGE, "bytes=0-99"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+                .andExpect(content().bytes(CONTENT));
+    }
+
+    @Test
+    void unknownSizeIgnoresRangeOnDownload() throws Exception {
+        driveFile("unknown", null);
+
+        mockMvc.perform(get("/api/gallery/download/unknown").header(HttpHeaders.RANGE, "bytes=500-"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+                .andExpect(content().bytes(CONTENT));
+    }
+
+    @Test
+    void knownSizeServesPartialContent() throws Exception {
+        driveFile("known", (long) CONTENT.length);
+        when(googleDriveService.openFileStream(eq("known"), anyLong(), any()))
+                .thenAnswer(invocation -> new ByteArrayInputStream(CONTENT, (int) (long) invocation.getArgument(1),
+                        CONTENT.length));
+
+        mockMvc.perform(get("/api/gallery/image/known").header(HttpHeaders.RANGE, "bytes=0-99"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 0-99/1000"));
+    }
+
+    @Test
+    void knownSizeRejectsRangePastTheEnd() throws Exception {
+        driveFile("known", (long) CONTENT.length);
+
+        mockMvc.perform(get("/api/gallery/image/known").header(HttpHeaders.RANGE, "bytes=5000-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */1000"));
+    }
+
+    private void driveFile(String fileId, Long size) throws Exception {
+        when(googleDriveService.getFileMetadata(fileId))
+                .thenReturn(new File().setId(fileId).setMimeType("image/jpeg").setSize(size));
+        when(googleDriveService.openFileStream(fileId)).thenAnswer(invocation -> new ByteArrayInputStream(CONTENT));
+    }
+}
@@ -0,0 +1,173 @@
+package com.PJ.Project.service;
+
+import com.PJ.Project.exception.DriveQuotaExceededException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Limita de concurenta AIMD si token bucket-ul DriveRequestLimiter, fara Spring si fara Google Drive
+ */
+class DriveRequestLimiterTest {
+
+    private static final int MAX_CONCURRENCY = 16;
+
+    @Test
+    void concurrentThrottlesHalveOncePerCongestionWindow() throws Exception {
+        DriveRequestLimiter limiter = limiter(1000, 100, MAX_CONCURRENCY, 0);
+        CountDownLatch admitted = new CountDownLatch(MAX_CONCURRENCY);
+
+        ExecutorService executor = Executors.newFixedThreadPool(MAX_CONCURRENCY);
+        try {
+            List<Future<?>> calls = new ArrayList<>();
+            for (int i = 0; i < MAX_CONCURRENCY; i++) {
+                // toate cererile sunt admise (aceeasi fereastra) inainte ca prima sa primeasca 429
+                calls.add(executor.submit(() -> limiter.execute("test", () -> {
+                    admitted.countDown();
+                    awaitQuietly(admitted);
+                    throw new DriveRequestLimiter.ThrottledException("429");
+                })));
+            }
+            for (Future<?> call : calls) {
+                assertThatThrownBy(call::get).hasCauseInstanceOf(DriveQuotaExceededException.class);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(limiter.getStats().getConcurrencyLimit()).isEqualTo(8.0);
+        assertThat(limiter.getStats().getThrottledTotal()).isEqualTo(MAX_CONCURRENCY);
+
+        // o cerere admisa dupa reducere deschide o fereastra noua
+        throttle(limiter);
+        assertThat(limiter.getStats().getConcurrencyLimit()).isEqualTo(4.0);
+    }
+
+    @Test
+    void successesRecoverAdditively() throws Exception {
+        DriveRequestLimiter limiter = limiter(1000, 100, MAX_CONCURRENCY, 0);
+        throttle(limiter);
+        assertThat(limiter.getStats().getConcurrencyLimit()).isEqualTo(8.0);
+
+        // +1/limita per cerere reusita: aproximativ +1 dupa "limita" cereri
+        for (int i = 0; i < 8; i++) {
+            succeed(limiter);
+        }
+        assertThat(limiter.getStats().getConcurrencyLimit()).isCloseTo(9.0, within(0.1));
+
+        for (int i = 0; i < 500; i++) {
+            succeed(limiter);
+        }
+        assertThat(limiter.getStats().getConcurrencyLimit()).isEqualTo(MAX_CONCURRENCY);
+    }
+
+    @Test
+    void limitNeverDropsBelowOne() throws Exception {
+        DriveRequestLimiter limiter = limiter(1000, 100, 4, 0);
+        for (int i = 0; i < 5; i++) {
+            throttle(limiter);
+        }
+        assertThat(limiter.getStats().getConcurrencyLimit()).isEqualTo(1.0);
+
+        // cu limita minima cererile trec in continuare
+        assertThat(succeed(limiter)).isEqualTo("ok");
+        assertThat(limiter.getStats().getInFlight()).isZero();
+    }
+
+    @Test
+    void throwsQuotaExceededAfterMaxRetries() {
+        DriveRequestLimiter limiter = limiter(1000, 100, MAX_CONCURRENCY, 2);
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> limiter.execute("test", () -> {
+            attempts.incrementAndGet();
+            throw new DriveRequestLimiter.ThrottledException("429");
+        }))
+                .isInstanceOfSatisfying(DriveQuotaExceededException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isEqualTo(1))
+                .hasCauseInstanceOf(DriveRequestLimiter.ThrottledException.class);
+
+        assertThat(attempts).hasValue(3);
+        assertThat(limiter.getStats().getRetriesTotal()).isEqualTo(2);
+        assertThat(limiter.getStats().getThrottledTotal()).isEqualTo(3);
+    }
+
+    @Test
+    void otherErrorsAreNotRetried() {
+        DriveRequestLimiter limiter = limiter(1000, 100, MAX_CONCURRENCY, 3);
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> limiter.execute("test", () -> {
+            attempts.incrementAndGet();
+            throw new IOException("not found");
+        })).isNotInstanceOf(DriveQuotaExceededException.class).hasMessage("not found");
+
+        assertThat(attempts).hasValue(1);
+        assertThat(limiter.getStats().getConcurrencyLimit()).isEqualTo(MAX_CONCURRENCY);
+    }
+
+    @Test
+    void tokenBucketLimitsRateAfterBurst() throws Exception {
+        DriveRequestLimiter limiter = limiter(10, 2, MAX_CONCURRENCY, 0);
+
+        long start = System.nanoTime();
+        succeed(limiter);
+        succeed(limiter);
+        long burstMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        for (int i = 0; i < 4; i++) {
+            succeed(limiter);
+        }
+        long totalMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // burst-ul trece imediat, urmatoarele 4 cereri asteapta cate ~100 ms (10 pe secunda)
+        assertThat(burstMillis).isLessThan(100);
+        assertThat(totalMillis).isBetween(350L, 2000L);
+    }
+
+    @Test
+    void batchCostConsumesMultipleTokens() throws Exception {
+        DriveRequestLimiter limiter = limiter(10, 5, MAX_CONCURRENCY, 0);
+
+        long start = System.nanoTime();
+        limiter.execute("batch", 5, () -> "ok");
+        limiter.execute("batch", 5, () -> "ok");
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // al doilea batch asteapta reumplerea celor 5 jetoane (~500 ms)
+        assertThat(millis).isBetween(400L, 2000L);
+    }
+
+    private static DriveRequestLimiter limiter(double ratePerSecond, int burst, int maxConcurrency, int maxRetries) {
+        return new DriveRequestLimiter(new MetricsService(), ratePerSecond, burst, maxConcurrency, maxRetries, 1, 1000);
+    }
+
+    private static void throttle(DriveRequestLimiter limiter) {
+        assertThatThrownBy(() -> limiter.execute("test", () -> {
+            throw new DriveRequestLimiter.ThrottledException("429");
+        })).isInstanceOf(DriveQuotaExceededException.class);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String succeed(DriveRequestLimiter limiter) throws IOException {
+        return limiter.execute("test", () -> "ok");
+    }
+}
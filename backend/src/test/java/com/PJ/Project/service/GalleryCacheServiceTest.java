@@ -0,0 +1,127 @@
+package com.PJ.Project.service;
+
+import com.PJ.Project.dto.GalleryResponseDto;
+import com.PJ.Project.dto.PhotoDto;
+import com.PJ.Project.entity.EventType;
+import com.PJ.Project.entity.Wedding;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cheile cache-ului de galerii: dimensiunea paginii se limiteaza inainte de a construi cheia, iar paginile
+ * goale de dupa ultima poza nu ocupa intrari. O invalidare arunca doar incarcarile in curs ale galeriei ei.
+ */
+class GalleryCacheServiceTest {
+
+    private static final String CODE = "CACHE1";
+    private static final int PHOTOS = 3;
+
+    private WeddingService weddingService;
+    private GalleryCacheService cache;
+
+    @BeforeEach
+    void setUp() {
+        weddingService = mock(WeddingService.class);
+        when(weddingService.getWeddingByCode(anyString())).thenAnswer(invocation -> Wedding.builder()
+                .code(invocation.getArgument(0))
+                .googleFolderId("folder")
+                .eventType(EventType.WEDDING)
+                .build());
+        when(weddingService.getGalleryByCodePaginated(anyString(), anyInt(), anyInt())).thenAnswer(invocation -> {
+            int page = invocation.getArgument(1);
+            int size = invocation.getArgument(2);
+            return gallery(invocation.getArgument(0), Math.max(0, Math.min(size, PHOTOS - page * size)));
+        });
+        cache = new GalleryCacheService(weddingService, new ObjectMapper(), new MetricsService(), 50_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.shutdown();
+    }
+
+    @Test
+    void oversizedPagesShareOneEntry() {
+        cache.getGallery(CODE, 0, 500, null);
+        cache.getGallery(CODE, 0, 501, null);
+        cache.getGallery(CODE, 0, 10_000, null);
+
+        verify(weddingService, times(1)).getGalleryByCodePaginated(CODE, 0, 500);
+        assertThat(cache.getStats().getEntries()).isEqualTo(1);
+        assertThat(cache.getStats().getHits()).isEqualTo(2);
+    }
+
+    @Test
+    void pagesPastTheEndAreNotCached() {
+        assertThat(cache.getGallery(CODE, 1, 2, null).photoCount()).isEqualTo(1);
+        for (int page = 2; page < 50; page++) {
+            assertThat(cache.getGallery(CODE, page, 2, null).photoCount()).isZero();
+        }
+
+        assertThat(cache.getStats().getEntries()).isEqualTo(1);
+        cache.getGallery(CODE, 7, 2, null);
+        verify(weddingService, times(2)).getGalleryByCodePaginated(eq(CODE), eq(7), eq(2));
+    }
+
+    @Test
+    void emptyGalleryFirstPageIsCached() {
+        when(weddingService.getGalleryByCodePaginated(eq("EMPTY"), anyInt(), anyInt()))
+                .thenReturn(gallery("EMPTY", 0));
+
+        cache.getGallery("EMPTY", 0, 50, null);
+        cache.getGallery("EMPTY", 0, 50, null);
+
+        verify(weddingService, times(1)).getGalleryByCodePaginated("EMPTY", 0, 50);
+    }
+
+    @Test
+    void invalidatingAnotherGalleryKeepsLoadInFlight() {
+        when(weddingService.getGalleryByCodePaginated(eq(CODE), eq(0), eq(50))).thenAnswer(invocation -> {
+            cache.invalidate("OTHER");
+            return gallery(CODE, PHOTOS);
+        });
+
+        cache.getGallery(CODE, 0, 50, null);
+        cache.getGallery(CODE, 0, 50, null);
+
+        verify(weddingService, times(1)).getGalleryByCodePaginated(CODE, 0, 50);
+    }
+
+    @Test
+    void invalidatingSameGalleryDropsLoadInFlight() {
+        when(weddingService.getGalleryByCodePaginated(eq(CODE), eq(0), eq(50))).thenAnswer(invocation -> {
+            cache.invalidate(CODE);
+            return gallery(CODE, PHOTOS);
+        });
+
+        cache.getGallery(CODE, 0, 50, null);
+
+        assertThat(cache.getStats().getEntries()).isZero();
+    }
+
+    static GalleryResponseDto gallery(String code, int photoCount) {
+        List<PhotoDto> photos = photoCount == 0 ? Collections.emptyList() : IntStream.range(0, photoCount)
+                .mapToObj(i -> PhotoDto.builder().id((long) i).filename("IMG_" + i + ".jpg").build())
+                .toList();
+        return GalleryResponseDto.builder()
+                .code(code)
+                .eventType(EventType.WEDDING)
+                .photos(photos)
+                .build();
+    }
+}
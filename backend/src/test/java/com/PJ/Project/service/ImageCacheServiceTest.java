@@ -0,0 +1,76 @@
+package com.PJ.Project.service;
+
+import com.PJ.Project.dto.MetricValueDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Timpul de acces al fisierelor din cache se scrie pe disc cel mult o data pe ora, iar dimensiunea
+ * si numarul de intrari sunt expuse ca gauge-uri.
+ */
+class ImageCacheServiceTest {
+
+    @TempDir
+    Path cacheDir;
+
+    private MetricsService metricsService;
+    private ImageCacheService cache;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        metricsService = new MetricsService();
+        cache = new ImageCacheService(true, cacheDir.toString(), 16, metricsService);
+        cache.loadIndex();
+    }
+
+    @Test
+    void recentAccessTimeIsNotRewritten() throws Exception {
+        Path path = cache.put("file-1", new ByteArrayInputStream(new byte[]{1, 2, 3})).path();
+        FileTime recent = FileTime.from(Instant.now().minus(Duration.ofMinutes(10)));
+        Files.setLastModifiedTime(path, recent);
+
+        try (ImageCacheService.CachedFile ignored = cache.open("file-1").orElseThrow()) {
+            assertThat(Files.getLastModifiedTime(path)).isEqualTo(recent);
+        }
+    }
+
+    @Test
+    void staleAccessTimeIsRefreshed() throws Exception {
+        Path path = cache.put("file-1", new ByteArrayInputStream(new byte[]{1, 2, 3})).path();
+        Instant before = Instant.now().minus(Duration.ofHours(2));
+        Files.setLastModifiedTime(path, FileTime.from(before));
+
+        try (ImageCacheService.CachedFile ignored = cache.open("file-1").orElseThrow()) {
+            assertThat(Files.getLastModifiedTime(path).toInstant())
+                    .isAfter(Instant.now().minus(Duration.ofMinutes(1)));
+        }
+    }
+
+    @Test
+    void sizeAndEntryCountAreGauges() throws Exception {
+        cache.put("file-1", new ByteArrayInputStream(new byte[100]));
+        cache.put("file-2", new ByteArrayInputStream(new byte[50]));
+
+        assertThat(gauges()).containsEntry("image.cache.size_bytes", 150L).containsEntry("image.cache.entries", 2L);
+        assertThat(metricsService.toPrometheus())
+                .contains("# TYPE fotoit_image_cache_size_bytes gauge\nfotoit_image_cache_size_bytes 150\n")
+                .contains("fotoit_image_cache_entries 2\n");
+    }
+
+    private Map<String, Long> gauges() {
+        return metricsService.getSnapshot().getGauges().stream()
+                .collect(Collectors.toMap(MetricValueDto::getName, MetricValueDto::getValue));
+    }
+}
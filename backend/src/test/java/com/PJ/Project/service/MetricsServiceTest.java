@@ -0,0 +1,151 @@
+package com.PJ.Project.service;
+
+import com.PJ.Project.controller.MetricsAdminController;
+import com.PJ.Project.dto.TimerStatsDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Histogramele timerelor (bucket-uri cumulative, limite inclusive), percentilele estimate din ele
+ * si formatul text Prometheus expus la /admin/metrics/prometheus.
+ */
+class MetricsServiceTest {
+
+    private MetricsService metricsService;
+
+    @BeforeEach
+    void setUp() {
+        metricsService = new MetricsService();
+    }
+
+    @Test
+    void bucketUpperBoundsAreInclusive() {
+        MetricsService.Timer timer = metricsService.timer("op");
+        timer.record(millis(5));
+        timer.record(TimeUnit.MICROSECONDS.toNanos(5_900));
+        timer.record(millis(10));
+        timer.record(millis(120_000));
+
+        TimerStatsDto stats = stats("op");
+        assertThat(stats.getCount()).isEqualTo(4);
+        assertThat(stats.getBucketsMs())
+                .containsEntry("5", 1L)
+                .containsEntry("10", 3L)
+                .containsEntry("60000", 3L)
+                .containsEntry("+Inf", 4L);
+        assertThat(stats.getMaxMs()).isEqualTo(120_000.0);
+        assertThat(stats.getTotalMs()).isEqualTo(120_020.9);
+    }
+
+    @Test
+    void percentilesUseBucketUpperBoundCappedByMax() {
+        MetricsService.Timer timer = metricsService.timer("op");
+        record(timer, 50, millis(3));
+        record(timer, 45, millis(40));
+        record(timer, 5, millis(2_000));
+
+        TimerStatsDto stats = stats("op");
+        assertThat(stats.getP50Ms()).isEqualTo(5.0);
+        assertThat(stats.getP95Ms()).isEqualTo(50.0);
+        // bucket-ul le=2500 ms depaseste maximul masurat
+        assertThat(stats.getP99Ms()).isEqualTo(2_000.0);
+        assertThat(stats.getMeanMs()).isEqualTo((50 * 3 + 45 * 40 + 5 * 2_000) / 100.0);
+    }
+
+    @Test
+    void percentilesOfSingleSampleAreTheSample() {
+        metricsService.timer("op").record(millis(7));
+
+        TimerStatsDto stats = stats("op");
+        assertThat(stats.getP50Ms()).isEqualTo(7.0);
+        assertThat(stats.getP99Ms()).isEqualTo(7.0);
+    }
+
+    @Test
+    void emptyTimerReportsZero() {
+        metricsService.timer("op");
+
+        TimerStatsDto stats = stats("op");
+        assertThat(stats.getCount()).isZero();
+        assertThat(stats.getP95Ms()).isZero();
+        assertThat(stats.getBucketsMs()).containsEntry("+Inf", 0L);
+    }
+
+    @Test
+    void prometheusTextFormat() {
+        metricsService.timer("drive.request", "operation", "get").record(millis(20));
+        metricsService.timer("drive.request", "operation", "list").record(millis(700));
+        metricsService.count("gallery.cache", "result", "hit", 3);
+        metricsService.gauge("proxy.in_flight", "endpoint", "image").set(2);
+        metricsService.gauge("image.cache.entries", null, null, () -> 42);
+
+        String text = metricsService.toPrometheus();
+
+        assertThat(text).containsOnlyOnce("# TYPE fotoit_drive_request_seconds histogram\n");
+        assertThat(text).contains(
+                "fotoit_drive_request_seconds_bucket{operation=\"get\",le=\"0.01\"} 0\n"
+                        + "fotoit_drive_request_seconds_bucket{operation=\"get\",le=\"0.025\"} 1\n");
+        assertThat(text).contains(
+                "fotoit_drive_request_seconds_bucket{operation=\"get\",le=\"60.0\"} 1\n"
+                        + "fotoit_drive_request_seconds_bucket{operation=\"get\",le=\"+Inf\"} 1\n"
+                        + "fotoit_drive_request_seconds_sum{operation=\"get\"} 0.02\n"
+                        + "fotoit_drive_request_seconds_count{operation=\"get\"} 1\n");
+        assertThat(text).contains(
+                "fotoit_drive_request_seconds_bucket{operation=\"list\",le=\"0.5\"} 0\n"
+                        + "fotoit_drive_request_seconds_bucket{operation=\"list\",le=\"1.0\"} 1\n");
+        assertThat(text).contains("# TYPE fotoit_gallery_cache_total counter\n"
+                + "fotoit_gallery_cache_total{result=\"hit\"} 3\n");
+        assertThat(text).contains("# TYPE fotoit_image_cache_entries gauge\nfotoit_image_cache_entries 42\n");
+        assertThat(text).contains("# TYPE fotoit_proxy_in_flight gauge\n"
+                + "fotoit_proxy_in_flight{endpoint=\"image\"} 2\n");
+        // fiecare linie este un comentariu TYPE sau "nume{etichete} valoare"
+        assertThat(text.lines()).allMatch(line -> line.startsWith("# TYPE ")
+                || line.matches("[a-zA-Z_:][a-zA-Z0-9_:]*(\\{[^}]*})? \\S+"));
+    }
+
+    @Test
+    void labelValuesAreEscaped() {
+        metricsService.count("odd", "tag", "a\"b\\c\nd", 1);
+
+        assertThat(metricsService.toPrometheus()).contains("fotoit_odd_total{tag=\"a\\\"b\\\\c\\nd\"} 1\n");
+    }
+
+    @Test
+    void prometheusEndpointServesTextFormat() throws Exception {
+        metricsService.count("gallery.cache", "result", "miss", 1);
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new MetricsAdminController(metricsService)).build();
+
+        mockMvc.perform(get("/admin/metrics/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_PLAIN))
+                .andExpect(content().string("# TYPE fotoit_gallery_cache_total counter\n"
+                        + "fotoit_gallery_cache_total{result=\"miss\"} 1\n"));
+    }
+
+    private TimerStatsDto stats(String name) {
+        return metricsService.getSnapshot().getTimers().stream()
+                .filter(timer -> timer.getName().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static void record(MetricsService.Timer timer, int times, long nanos) {
+        for (int i = 0; i < times; i++) {
+            timer.record(nanos);
+        }
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
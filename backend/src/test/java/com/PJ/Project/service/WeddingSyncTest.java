@@ -0,0 +1,197 @@
+package com.PJ.Project.service;
+
+import com.PJ.Project.dto.SyncResultDto;
+import com.PJ.Project.entity.EventType;
+import com.PJ.Project.entity.Photo;
+import com.PJ.Project.entity.Wedding;
+import com.PJ.Project.event.GalleryChangedEvent;
+import com.PJ.Project.repository.PhotoRepository;
+import com.PJ.Project.repository.WeddingRepository;
+import com.google.api.client.util.DateTime;
+import com.google.api.services.drive.Drive;
+import com.google.api.services.drive.model.File;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * Sincronizarea aplica doar diferentele dintre listarea din Drive si randurile salvate: pozele neschimbate
+ * isi pastreaza randul (fara GalleryChangedEvent), cele modificate sunt actualizate, cele sterse din Drive
+ * eliminate, iar cele noi inserate.
+ */
+@SpringBootTest(properties = {
+        "fotoit.archive.build-on-sync=false",
+        "spring.jpa.hibernate.ddl-auto=create"
+})
+@RecordApplicationEvents
+class WeddingSyncTest {
+
+    private static final String FOLDER_ID = "sync-folder";
+
+    @TempDir
+    static Path tempDir;
+
+    @MockitoBean
+    private Drive drive;
+
+    @MockitoBean
+    private GoogleDriveService googleDriveService;
+
+    @Autowired
+    private WeddingService weddingService;
+
+    @Autowired
+    private WeddingRepository weddingRepository;
+
+    @Autowired
+    private PhotoRepository photoRepository;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    private Wedding wedding;
+    private Map<String, Photo> initial;
+    private LocalDateTime initialSyncedAt;
+
+    @DynamicPropertySource
+    static void sqlite(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + tempDir.resolve("sync.db"));
+        registry.add("fotoit.cache.dir", () -> tempDir.resolve("images").toString());
+        registry.add("fotoit.archive.dir", () -> tempDir.resolve("archives").toString());
+    }
+
+    @BeforeEach
+    void syncInitialListing() throws Exception {
+        wedding = weddingRepository.save(Wedding.builder()
+                .code("SYNC1")
+                .googleFolderId(FOLDER_ID)
+                .eventType(EventType.WEDDING)
+                .name("Sincronizare")
+                .build());
+
+        SyncResultDto result = sync(driveFile("file-1", "IMG_0001.jpg", "md5-1"),
+                driveFile("file-2", "IMG_0002.jpg", "md5-2"),
+                driveFile("file-3", "IMG_0003.jpg", "md5-3"));
+
+        assertThat(result.getAdded()).isEqualTo(3);
+        initial = photosByFileId();
+        assertThat(initial).containsOnlyKeys("file-1", "file-2", "file-3");
+        initialSyncedAt = wedding(wedding.getId()).getLastSyncedAt();
+        assertThat(initialSyncedAt).isNotNull();
+        events.clear();
+    }
+
+    @AfterEach
+    void deleteGallery() {
+        weddingService.deleteWedding(wedding.getId());
+    }
+
+    @Test
+    void unchangedListingLeavesRowsUntouched() throws Exception {
+        SyncResultDto result = sync(driveFile("file-1", "IMG_0001.jpg", "md5-1"),
+                driveFile("file-2", "IMG_0002.jpg", "md5-2"),
+                driveFile("file-3", "IMG_0003.jpg", "md5-3"));
+
+        assertThat(result.hasChanges()).isFalse();
+        assertThat(result.getUnchanged()).isEqualTo(3);
+        assertThat(events.stream(GalleryChangedEvent.class)).isEmpty();
+        Map<String, Photo> after = photosByFileId();
+        assertThat(after).containsOnlyKeys(initial.keySet());
+        initial.forEach((fileId, photo) -> {
+            assertThat(after.get(fileId).getId()).isEqualTo(photo.getId());
+            assertThat(after.get(fileId).getMd5Checksum()).isEqualTo(photo.getMd5Checksum());
+        });
+        assertThat(wedding(wedding.getId()).getLastSyncedAt()).isEqualTo(initialSyncedAt);
+    }
+
+    @Test
+    void changedChecksumUpdatesRowInPlace() throws Exception {
+        SyncResultDto result = sync(driveFile("file-1", "IMG_0001.jpg", "md5-1"),
+                driveFile("file-2", "IMG_0002.jpg", "md5-2-edited"),
+                driveFile("file-3", "IMG_0003.jpg", "md5-3"));
+
+        assertThat(result.getUpdated()).isEqualTo(1);
+        assertThat(result.getAdded()).isZero();
+        assertThat(result.getRemoved()).isZero();
+        Map<String, Photo> after = photosByFileId();
+        assertThat(after.get("file-2").getId()).isEqualTo(initial.get("file-2").getId());
+        assertThat(after.get("file-2").getMd5Checksum()).isEqualTo("md5-2-edited");
+        assertThat(after.get("file-1").getMd5Checksum()).isEqualTo("md5-1");
+        assertThat(events.stream(GalleryChangedEvent.class)).hasSize(1);
+    }
+
+    @Test
+    void fileRemovedFromDriveIsDeleted() throws Exception {
+        SyncResultDto result = sync(driveFile("file-1", "IMG_0001.jpg", "md5-1"),
+                driveFile("file-3", "IMG_0003.jpg", "md5-3"));
+
+        assertThat(result.getRemoved()).isEqualTo(1);
+        assertThat(result.getUnchanged()).isEqualTo(2);
+        Map<String, Photo> after = photosByFileId();
+        assertThat(after).containsOnlyKeys("file-1", "file-3");
+        assertThat(after.get("file-1").getId()).isEqualTo(initial.get("file-1").getId());
+        assertThat(events.stream(GalleryChangedEvent.class)).hasSize(1);
+    }
+
+    @Test
+    void newFileIsInserted() throws Exception {
+        SyncResultDto result = sync(driveFile("file-1", "IMG_0001.jpg", "md5-1"),
+                driveFile("file-2", "IMG_0002.jpg", "md5-2"),
+                driveFile("file-3", "IMG_0003.jpg", "md5-3"),
+                driveFile("file-4", "IMG_0004.jpg", "md5-4"));
+
+        assertThat(result.getAdded()).isEqualTo(1);
+        assertThat(result.getUnchanged()).isEqualTo(3);
+        Map<String, Photo> after = photosByFileId();
+        assertThat(after).containsOnlyKeys("file-1", "file-2", "file-3", "file-4");
+        assertThat(after.get("file-4").getFilename()).isEqualTo("IMG_0004.jpg");
+        assertThat(after.get("file-4").getUrl()).isEqualTo("/api/gallery/image/file-4");
+        assertThat(events.stream(GalleryChangedEvent.class))
+                .singleElement()
+                .satisfies(event -> assertThat(event.code()).isEqualTo("SYNC1"));
+    }
+
+    private SyncResultDto sync(File... files) throws Exception {
+        when(googleDriveService.listFilesInFolderRecursive(eq(FOLDER_ID), any())).thenReturn(List.of(files));
+        return weddingService.syncPhotosFromGoogleDrive(wedding.getId(), SyncProgressListener.NONE);
+    }
+
+    private Map<String, Photo> photosByFileId() {
+        return photoRepository.findByWedding(wedding(wedding.getId())).stream()
+                .collect(Collectors.toMap(Photo::getFileId, Function.identity()));
+    }
+
+    private Wedding wedding(Long id) {
+        return weddingRepository.findById(id).orElseThrow();
+    }
+
+    private static File driveFile(String id, String name, String md5) {
+        return new File()
+                .setId(id)
+                .setName(name)
+                .setMd5Checksum(md5)
+                .setMimeType("image/jpeg")
+                .setSize(1024L)
+                .setModifiedTime(new DateTime(1_767_268_800_000L));
+    }
+}
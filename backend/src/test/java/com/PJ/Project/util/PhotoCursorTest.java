@@ -0,0 +1,61 @@
+package com.PJ.Project.util;
+
+import com.PJ.Project.exception.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Cursorul vine direct de la client: orice forma care nu a fost emisa de encode este respinsa
+ */
+class PhotoCursorTest {
+
+    @ParameterizedTest
+    @ValueSource(longs = {0, 1, 42, 1_000_000, Long.MAX_VALUE})
+    void roundTrips(long lastPhotoId) {
+        String cursor = PhotoCursor.encode(lastPhotoId);
+
+        assertThat(cursor).matches("[A-Za-z0-9_-]+");
+        assertThat(PhotoCursor.decode(cursor)).isEqualTo(lastPhotoId);
+    }
+
+    @Test
+    void missingCursorMeansFirstPage() {
+        assertThat(PhotoCursor.decode(null)).isNull();
+        assertThat(PhotoCursor.decode("")).isNull();
+        assertThat(PhotoCursor.decode("  ")).isNull();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"p1:abc", "p1:", "p1:12x", "p1:-5", "p1:+5", "p1:007", "p1:99999999999999999999"})
+    void rejectsTamperedPayload(String raw) {
+        assertRejected(encodeRaw(raw));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"p0:42", "p2:42", "42", "P1:42", "x1:42"})
+    void rejectsOtherVersions(String raw) {
+        assertRejected(encodeRaw(raw));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"not a cursor", "cDE6NDI=", "cDE6NDI+", "cDE6NDI/", "%%%", "cDE6N"})
+    void rejectsNonBase64Url(String cursor) {
+        assertRejected(cursor);
+    }
+
+    private static void assertRejected(String cursor) {
+        assertThatThrownBy(() -> PhotoCursor.decode(cursor))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    private static String encodeRaw(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -32,10 +32,11 @@ export default function PhotoGallery({
 
   // Infinite scroll state
   const [photos, setPhotos] = useState<Photo[]>(initialGallery.photos);
-  const [currentPage, setCurrentPage] = useState(0);
-  const [hasMore, setHasMore] = useState(
-    initialGallery.photos.length < initialGallery.totalPhotos
+  const [nextCursor, setNextCursor] = useState<string | null>(
+    initialGallery.nextCursor ?? null
   );
+  // prima pagină vine cu nextCursor; infinite scroll continuă de la el
+  const [hasMore, setHasMore] = useState(nextCursor !== null);
   const [isLoadingMore, setIsLoadingMore] = useState(false);
   const observerTarget = useRef<HTMLDivElement>(null);
   const totalPhotos = initialGallery.totalPhotos;
@@ -49,19 +50,16 @@ export default function PhotoGallery({
 
     setIsLoadingMore(true);
     try {
-      const nextPage = currentPage + 1;
       const response = await getGalleryPaginated(
         initialGallery.code,
-        nextPage,
+        nextCursor ?? "",
         PHOTOS_PER_PAGE
       );
 
       if (response.photos && response.photos.length > 0) {
         setPhotos((prev) => [...prev, ...response.photos]);
-        setCurrentPage(nextPage);
-        setHasMore(
-          photos.length + response.photos.length < response.totalPhotos
-        );
+        setNextCursor(response.nextCursor ?? null);
+        setHasMore(response.nextCursor != null);
       } else {
         setHasMore(false);
       }
@@ -71,7 +69,7 @@ export default function PhotoGallery({
     } finally {
       setIsLoadingMore(false);
     }
-  }, [currentPage, hasMore, isLoadingMore, initialGallery.code, photos.length]);
+  }, [nextCursor, hasMore, isLoadingMore, initialGallery.code]);
 
   // Intersection Observer pentru infinite scroll
   useEffect(() => {
@@ -254,6 +252,28 @@ export default function PhotoGallery({
         return;
       }
 
+      // Toată galeria: folosește arhiva pre-construită pe server, dacă este gata
+      // (descărcată direct de browser, cu posibilitate de reluare)
+      if (selected.length === initialGallery.totalPhotos) {
+        const archiveUrl = `${API_BASE_URL}/api/gallery/${initialGallery.code}/archive`;
+        const archiveResponse = await fetch(archiveUrl, { method: "HEAD" });
+        if (archiveResponse.status === 200) {
+          const link = document.createElement("a");
+          link.href = archiveUrl;
+          link.download = `${initialGallery.name || "galerie"}.zip`;
+          document.body.appendChild(link);
+          link.click();
+          document.body.removeChild(link);
+          setSelectedPhotos(new Set());
+          setIsSelectMode(false);
+          return;
+        }
+        if (archiveResponse.status === 404) {
+          // arhiva nu este gata: cere construirea ei pentru data viitoare, apoi continuă cu ZIP-ul în flux
+          fetch(archiveUrl, { method: "POST" }).catch(() => {});
+        }
+      }
+
       setDownloadProgress("Se creează arhiva ZIP...");
       const response = await fetch(
         `${API_BASE_URL}/api/gallery/download/zip?galleryName=${encodeURIComponent(
@@ -380,6 +400,12 @@ export default function PhotoGallery({
           const fullImageUrl = photo.url?.startsWith("/api/")
             ? `${API_BASE_URL}${photo.url}`
             : photo.url;
+          // Variantele generate pe server, browser-ul alege dimensiunea potrivită
+          const srcSet = photo.variants
+            ? Object.entries(photo.variants)
+                .map(([width, url]) => `${API_BASE_URL}${url} ${width}w`)
+                .join(", ")
+            : undefined;
           const hasError = imageStates[photo.id] === "error";
           const isSelected = selectedPhotos.has(photo.id);
 
@@ -407,6 +433,8 @@ export default function PhotoGallery({
                   )}
                   <img
                     src={imageUrl}
+                    srcSet={srcSet}
+                    sizes="(min-width: 1024px) 25vw, (min-width: 768px) 33vw, (min-width: 640px) 50vw, 100vw"
                     alt={photo.filename}
                     className={`w-full h-full object-cover transition-all duration-300 group-hover:scale-110 ${
                       imageStates[photo.id] === "loaded" || imageStates[photo.id] === undefined
@@ -435,6 +463,7 @@ export default function PhotoGallery({
                           ? `${API_BASE_URL}${photo.url}`
                           : photo.url;
                         console.log(`Încercare fallback la URL complet: ${fallbackUrl}`);
+                        img.srcset = "";
                         img.src = fallbackUrl;
                         return;
                       }
@@ -2,75 +2,84 @@
  * API Service pentru comunicarea cu backend-ul Spring Boot
  */
 
-import { GalleryResponse, ApiError } from "@/types/gallery";
+import { GalleryResponse, CompactGalleryResponse, Photo, ApiError } from "@/types/gallery";
 
 const API_BASE_URL = process.env.NEXT_PUBLIC_API_URL || "http://localhost:8080";
 
 /**
- * Obține galeria unui eveniment după cod
+ * Reconstruiește pozele din formatul compact (v2) în forma obișnuită GalleryResponse
+ *
+ * @param compact Galeria primită de la /api/v2/gallery/{code}
+ * @returns GalleryResponse cu aceleași poze ca /api/gallery/{code}
+ */
+export function expandCompactGallery(compact: CompactGalleryResponse): GalleryResponse {
+  const fill = (template: string, fileId: string, width?: number) =>
+    template
+      .replace("{fileId}", encodeURIComponent(fileId))
+      .replace("{w}", width !== undefined ? String(width) : "");
+
+  const photos: Photo[] = compact.photos.map(([id, fileId, filename, width, height]) => ({
+    id,
+    fileId,
+    filename,
+    width,
+    height,
+    weddingId: compact.weddingId,
+    url: fill(compact.imageUrlTemplate, fileId),
+    thumbnailUrl: fill(compact.thumbnailUrlTemplate, fileId),
+    variants: Object.fromEntries(
+      compact.variantWidths.map((w) => [String(w), fill(compact.variantUrlTemplate, fileId, w)])
+    ),
+    createdAt: "",
+  }));
+
+  return {
+    code: compact.code,
+    eventType: compact.eventType,
+    name: compact.name,
+    description: compact.description,
+    photos,
+    totalPhotos: compact.totalPhotos,
+    nextCursor: compact.nextCursor,
+  };
+}
+
+/**
+ * Obține prima pagină a galeriei unui eveniment după cod (formatul compact v2, extins pe client).
+ * Restul pozelor se încarcă cu getGalleryPaginated, pornind de la nextCursor
  * 
  * @param code Codul unic al evenimentului
- * @returns GalleryResponse cu toate pozele
+ * @param size Numărul de poze din prima pagină
+ * @returns GalleryResponse cu prima pagină, numărul total de poze și nextCursor
  * @throws ApiError dacă există probleme
  */
-export async function getGallery(code: string): Promise<GalleryResponse> {
-  try {
-    const response = await fetch(`${API_BASE_URL}/api/gallery/${code}`, {
-      method: "GET",
-      headers: {
-        "Content-Type": "application/json",
-      },
-      // Pentru development - permite CORS
-      cache: "no-store",
-    });
-
-    if (!response.ok) {
-      const error: ApiError = {
-        message: `Eroare ${response.status}: ${response.statusText}`,
-        status: response.status,
-      };
-      
-      if (response.status === 404) {
-        error.message = "Galerie negăsită. Verifică codul introdus.";
-      }
-      
-      throw error;
-    }
-
-    const data: GalleryResponse = await response.json();
-    return data;
-  } catch (error) {
-    if (error instanceof Error) {
-      throw {
-        message: error.message,
-      } as ApiError;
-    }
-    throw error;
-  }
+export async function getGallery(code: string, size: number = 20): Promise<GalleryResponse> {
+  return getGalleryPaginated(code, "", size);
 }
 
 /**
- * Obține galeria unui eveniment după cod cu paginare
+ * Obține galeria unui eveniment după cod cu paginare (keyset, după cursor), în formatul compact v2
  * 
  * @param code Codul unic al evenimentului
- * @param page Numărul paginii (0-indexed)
+ * @param cursor Cursorul primit în nextCursor la pagina anterioară (gol pentru prima pagină)
  * @param size Numărul de poze per pagină
- * @returns GalleryResponse cu pozele paginate
+ * @returns GalleryResponse cu pozele paginii și nextCursor (totalPhotos doar pe prima pagină)
  * @throws ApiError dacă există probleme
  */
 export async function getGalleryPaginated(
   code: string,
-  page: number = 0,
+  cursor: string = "",
   size: number = 20
 ): Promise<GalleryResponse> {
   try {
     const response = await fetch(
-      `${API_BASE_URL}/api/gallery/${code}?page=${page}&size=${size}`,
+      `${API_BASE_URL}/api/v2/gallery/${code}?cursor=${encodeURIComponent(cursor)}&size=${size}`,
       {
         method: "GET",
         headers: {
           "Content-Type": "application/json",
         },
+        // Pentru development - permite CORS
         cache: "no-store",
       }
     );
@@ -88,8 +97,8 @@ export async function getGalleryPaginated(
       throw error;
     }
 
-    const data: GalleryResponse = await response.json();
-    return data;
+    const data: CompactGalleryResponse = await response.json();
+    return expandCompactGallery(data);
   } catch (error) {
     if (error instanceof Error) {
       throw {
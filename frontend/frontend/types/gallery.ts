@@ -13,8 +13,13 @@ export interface Photo {
   filename: string;
   url: string;
   thumbnailUrl?: string;
+  /** Latime -> URL al variantei redimensionate pe server (pentru srcset) */
+  variants?: Record<string, string>;
   weddingId: number;
   fileId: string;
+  /** Dimensiunile in pixeli, daca sunt cunoscute (pentru layout inainte de incarcarea imaginii) */
+  width?: number | null;
+  height?: number | null;
   createdAt: string;
 }
 
@@ -24,7 +29,31 @@ export interface GalleryResponse {
   name: string;
   description?: string;
   photos: Photo[];
-  totalPhotos: number;
+  /** Numărul total de poze; la paginarea cu ?cursor= doar pe prima pagină (null pe următoarele) */
+  totalPhotos: number | null;
+  /** Cursor opac pentru pagina urmatoare (paginare cu ?cursor=); null cand nu mai sunt poze */
+  nextCursor?: string | null;
+}
+
+/**
+ * Galeria in formatul compact (GET /api/v2/gallery/{code}): URL-urile sunt sabloane cu {fileId} si {w},
+ * iar fiecare poza este un tuplu in ordinea din photoFields ([id, fileId, filename, width, height])
+ */
+export interface CompactGalleryResponse {
+  version: number;
+  weddingId: number;
+  code: string;
+  eventType: EventType;
+  name: string;
+  description?: string;
+  totalPhotos: number | null;
+  nextCursor?: string | null;
+  imageUrlTemplate: string;
+  thumbnailUrlTemplate: string;
+  variantUrlTemplate: string;
+  variantWidths: number[];
+  photoFields: string[];
+  photos: [number, string, string, number | null, number | null][];
 }
 
 export interface ApiError {